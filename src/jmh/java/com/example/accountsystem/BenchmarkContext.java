@@ -0,0 +1,26 @@
+package com.example.accountsystem;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 벤치마크용 애플리케이션 컨텍스트 (H2, 내장 Redis)
+ * 웹 서버는 띄우지 않고, SQL 로그는 측정에 섞이지 않도록 끈다.
+ */
+public final class BenchmarkContext {
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(AccountSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "logging.level.root=WARN"
+                )
+                .properties(properties)
+                .run();
+    }
+}
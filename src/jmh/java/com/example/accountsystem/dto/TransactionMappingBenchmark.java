@@ -0,0 +1,36 @@
+package com.example.accountsystem.dto;
+
+import com.example.accountsystem.domain.Account;
+import com.example.accountsystem.domain.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+
+import static com.example.accountsystem.type.TransactionResultType.S;
+import static com.example.accountsystem.type.TransactionType.USE;
+
+/**
+ * 거래 응답을 만드는 변환 비용 (Transaction -> TransactionDto -> UseBalance.Response)
+ */
+@State(Scope.Benchmark)
+public class TransactionMappingBenchmark {
+    private Transaction transaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transaction = Transaction.builder()
+                .account(Account.builder().accountNumber("1000000000").build())
+                .transactionType(USE)
+                .transactionResultType(S)
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactionId("0000018b2f4c1a2b00000123456789ab")
+                .transactedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Benchmark
+    public UseBalance.Response fromEntity() {
+        return UseBalance.Response.from(TransactionDto.fromEntity(transaction));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.aop.AccountLock;
+import com.example.accountsystem.config.ConcurrencyProperties;
+import com.example.accountsystem.config.HotAccountProperties;
+import com.example.accountsystem.dto.UseBalance;
+import com.example.accountsystem.type.ConcurrencyMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static com.example.accountsystem.type.TransactionType.USE;
+
+/**
+ * @AccountLock 프록시를 거칠 때 추가되는 비용
+ * lock 은 메모리 안에서 처리해서 프록시와 aspect 자체의 비용만 남긴다.
+ * direct 와 proxied 의 차이가 aspect 의 비용이다.
+ */
+@State(Scope.Benchmark)
+public class LockAopAspectBenchmark {
+    @Param({"PESSIMISTIC", "ATOMIC"}) // ATOMIC 은 lock 없이 그대로 실행한다.
+    private ConcurrencyMode mode;
+
+    private LockTarget direct;
+    private LockTarget proxied;
+    private UseBalance.Request request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ConcurrencyProperties concurrencyProperties = new ConcurrencyProperties();
+        concurrencyProperties.setUse(mode);
+
+        direct = new LockTarget();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(direct);
+        proxyFactory.setProxyTargetClass(true);
+        LockMetrics lockMetrics = new LockMetrics(new SimpleMeterRegistry());
+        proxyFactory.addAspect(new LockAopAspect(
+                new AccountLockTemplate(new StripedLockService(1024), new InProcessLockService(),
+                        lockMetrics, new HotAccountDetector(new HotAccountProperties())),
+                concurrencyProperties, lockMetrics));
+        proxied = proxyFactory.getProxy();
+
+        request = new UseBalance.Request(1L, "1000000000", 1000L);
+    }
+
+    @Benchmark
+    public Long direct() {
+        return direct.useBalance(request);
+    }
+
+    @Benchmark
+    public Long proxied() {
+        return proxied.useBalance(request);
+    }
+
+    public static class LockTarget {
+        @AccountLock(type = USE)
+        public Long useBalance(UseBalance.Request request) {
+            return request.getAmount();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.BenchmarkContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 내장 Redis 에 계좌 lock 을 걸고 푸는 비용 (경쟁 없음)
+ */
+@State(Scope.Benchmark)
+public class LockServiceBenchmark {
+    private static final String ACCOUNT_NUMBER = "1000000000";
+
+    private ConfigurableApplicationContext context;
+    private LockService lockService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("account.lock.provider=redis");
+        lockService = context.getBean(LockService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void lockAndUnlock() {
+        lockService.lock(ACCOUNT_NUMBER);
+        lockService.unlock(ACCOUNT_NUMBER);
+    }
+}
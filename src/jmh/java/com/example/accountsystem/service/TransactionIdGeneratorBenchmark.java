@@ -0,0 +1,32 @@
+package com.example.accountsystem.service;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * 거래 아이디 생성 비용 (구현체별)
+ */
+@State(Scope.Benchmark)
+public class TransactionIdGeneratorBenchmark {
+    @Param({"time-ordered", "uuid"}) // account.transaction-id.generator 값과 같다.
+    private String generator;
+
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transactionIdGenerator = "uuid".equals(generator)
+                ? new UuidTransactionIdGenerator()
+                : new TimeOrderedTransactionIdGenerator(0);
+    }
+
+    @Benchmark
+    public String generate() {
+        return transactionIdGenerator.generate();
+    }
+
+    @Benchmark
+    @Threads(4) // 여러 요청이 동시에 아이디를 만들 때
+    public String generateConcurrently() {
+        return transactionIdGenerator.generate();
+    }
+}
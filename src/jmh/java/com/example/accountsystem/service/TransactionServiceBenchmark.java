@@ -0,0 +1,60 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.BenchmarkContext;
+import com.example.accountsystem.domain.AccountUser;
+import com.example.accountsystem.dto.TransactionDto;
+import com.example.accountsystem.repository.AccountUserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * H2 에서 잔액 사용과 사용 취소 한 건을 처리하는 비용 (lock 은 포함하지 않는다.)
+ * 두 벤치마크는 따로 실행되므로 사용은 잔액을 계속 줄이고 취소는 같은 거래를 계속 취소한다.
+ * 반복(iteration)마다 새 계좌와 취소할 거래를 만들어서 앞선 반복의 잔액이 결과에 영향을 주지 않게 한다.
+ */
+@State(Scope.Benchmark)
+public class TransactionServiceBenchmark {
+    private static final long AMOUNT = 1000L;
+    private static final long INITIAL_BALANCE = 1_000_000_000_000L; // 한 반복 동안 사용해도 모자라지 않는다.
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private Long userId;
+    private String accountNumber;
+    private String cancelTargetId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        transactionService = context.getBean(TransactionService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration() {
+        // 사용자당 계좌 수가 제한되므로 반복마다 사용자도 새로 만든다.
+        userId = context.getBean(AccountUserRepository.class)
+                .save(AccountUser.builder().name("benchmark").build())
+                .getId();
+        accountNumber = context.getBean(AccountService.class)
+                .createAccount(userId, INITIAL_BALANCE)
+                .getAccountNumber();
+        // 전액 취소만 가능하므로 같은 금액의 거래를 계속 취소한다.
+        cancelTargetId = transactionService.useBalance(userId, accountNumber, AMOUNT)
+                .getTransactionId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionDto useBalance() {
+        return transactionService.useBalance(userId, accountNumber, AMOUNT);
+    }
+
+    @Benchmark
+    public TransactionDto cancelBalance() {
+        return transactionService.cancelBalance(cancelTargetId, accountNumber, AMOUNT);
+    }
+}
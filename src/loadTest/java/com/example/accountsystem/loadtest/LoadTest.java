@@ -0,0 +1,332 @@
+package com.example.accountsystem.loadtest;
+
+import com.example.accountsystem.AccountSystemApplication;
+import com.example.accountsystem.domain.AccountUser;
+import com.example.accountsystem.repository.AccountUserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 애플리케이션을 임의의 포트로 띄우고 src/test/http 의 요청들을 정해진 비중으로 보낸다.
+ * 각 클라이언트는 응답을 받은 뒤에 다음 요청을 보낸다. (closed-loop)
+ * 계좌는 Zipf 분포로 골라서 일부 계좌에 거래가 몰리는 상황을 만든다.
+ */
+@Slf4j
+public class LoadTest {
+    private static final int ACCOUNTS_PER_USER = 10; // 사용자당 최대 보유 가능 계좌
+    private static final int PENDING_CANCELS = 100_000; // 취소를 기다리는 거래의 최대 수
+    private static final int RECENT_TRANSACTIONS = 1024; // 조회에 쓰는 최근 거래 수
+
+    private final LoadTestOptions options;
+    private final String baseUrl;
+    private final AccountUserRepository accountUserRepository;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Scenario, ScenarioStats> stats = new EnumMap<>(Scenario.class);
+
+    private final List<AccountRef> accounts = new ArrayList<>();
+    private final BlockingQueue<UsedTransaction> pendingCancels =
+            new ArrayBlockingQueue<>(PENDING_CANCELS);
+    private final AtomicReferenceArray<String> recentTransactions =
+            new AtomicReferenceArray<>(RECENT_TRANSACTIONS);
+    private final AtomicLong recentIndex = new AtomicLong();
+
+    private ZipfianGenerator accountChooser;
+    private Long creatorUserId;
+    private int creatorRemaining;
+
+    public LoadTest(LoadTestOptions options, String baseUrl,
+                    AccountUserRepository accountUserRepository) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.accountUserRepository = accountUserRepository;
+        for (Scenario scenario : Scenario.values()) {
+            stats.put(scenario, new ScenarioStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.fromSystemProperties();
+        ConfigurableApplicationContext context =
+                new SpringApplicationBuilder(AccountSystemApplication.class)
+                        .properties(
+                                "server.port=0",
+                                "account.transaction.use-delay-ms=" + options.getUseDelay().toMillis(),
+                                "spring.jpa.properties.hibernate.show_sql=false",
+                                "spring.jpa.properties.hibernate.format_sql=false",
+                                "logging.level.root=WARN",
+                                "logging.level.com.example.accountsystem.loadtest=INFO"
+                        )
+                        .run(args);
+
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            new LoadTest(options, "http://localhost:" + port,
+                    context.getBean(AccountUserRepository.class)).run();
+        } finally {
+            context.close();
+        }
+    }
+
+    public void run() throws Exception {
+        log.info("Load test started. {}", options);
+        createAccounts();
+
+        ExecutorService clients = Executors.newFixedThreadPool(options.getConcurrency());
+        long warmupEnd = System.nanoTime() + options.getWarmup().toNanos();
+        long end = warmupEnd + options.getDuration().toNanos();
+        for (int i = 0; i < options.getConcurrency(); i++) {
+            clients.execute(() -> runClient(end));
+        }
+
+        TimeUnit.NANOSECONDS.sleep(warmupEnd - System.nanoTime());
+        stats.values().forEach(ScenarioStats::reset);
+        long measureStart = System.nanoTime();
+        log.info("Warmup finished. Measuring for {}", options.getDuration());
+
+        clients.shutdown();
+        clients.awaitTermination(options.getDuration().toMillis() + 60_000, TimeUnit.MILLISECONDS);
+        stats.values().forEach(ScenarioStats::finish);
+
+        // 마지막 요청의 응답까지 기다린 시간을 포함한 실제 측정 시간
+        printReport((System.nanoTime() - measureStart) / 1e9);
+    }
+
+    /**
+     * 거래에 쓸 계좌를 만든다. 사용자당 계좌 수 제한이 있으므로 사용자는 직접 추가한다.
+     */
+    private void createAccounts() throws IOException, InterruptedException {
+        for (int i = 0; i < options.getAccounts(); i++) {
+            Long userId = nextCreatorUserId();
+            JsonNode response = post("/account", Map.of(
+                    "userId", userId, "initialBalance", options.getInitialBalance()));
+            if (response.hasNonNull("errorCode")) {
+                throw new IllegalStateException("Failed to create account : " + response);
+            }
+            accounts.add(new AccountRef(userId, response.get("accountNumber").asText()));
+        }
+        accountChooser = new ZipfianGenerator(accounts.size(), options.getSkew());
+        log.info("{} accounts created.", accounts.size());
+    }
+
+    private synchronized Long nextCreatorUserId() {
+        if (creatorRemaining == 0) {
+            creatorUserId = accountUserRepository.save(AccountUser.builder()
+                    .name("loadtest")
+                    .build()).getId();
+            creatorRemaining = ACCOUNTS_PER_USER;
+        }
+        creatorRemaining--;
+        return creatorUserId;
+    }
+
+    private void runClient(long end) {
+        Scenario[] scenarios = Scenario.values();
+        int[] cumulativeWeights = new int[scenarios.length];
+        int totalWeight = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            totalWeight += options.getMix().get(scenarios[i]);
+            cumulativeWeights[i] = totalWeight;
+        }
+
+        while (System.nanoTime() < end) {
+            int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+            int index = 0;
+            while (cumulativeWeights[index] <= pick) {
+                index++;
+            }
+            execute(scenarios[index]);
+        }
+    }
+
+    private void execute(Scenario scenario) {
+        AccountRef account = accounts.get(accountChooser.next());
+        try {
+            switch (scenario) {
+                case CREATE:
+                    Long userId = nextCreatorUserId();
+                    send(Scenario.CREATE, () -> post("/account",
+                            Map.of("userId", userId, "initialBalance", 0L)));
+                    break;
+                case CANCEL:
+                    UsedTransaction used = pendingCancels.poll();
+                    if (used == null) {
+                        useBalance(account); // 취소할 거래가 없으면 먼저 사용한다.
+                        break;
+                    }
+                    send(Scenario.CANCEL, () -> post("/transaction/cancel", Map.of(
+                            "transactionId", used.transactionId,
+                            "accountNumber", used.accountNumber,
+                            "amount", options.getAmount())));
+                    break;
+                case QUERY:
+                    String transactionId = recentTransactions.get(
+                            ThreadLocalRandom.current().nextInt(RECENT_TRANSACTIONS));
+                    if (transactionId == null) {
+                        listAccounts(account);
+                        break;
+                    }
+                    send(Scenario.QUERY, () -> get("/transaction/" + transactionId));
+                    break;
+                case LIST:
+                    listAccounts(account);
+                    break;
+                default:
+                    useBalance(account);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void useBalance(AccountRef account) throws InterruptedException {
+        JsonNode response = send(Scenario.USE, () -> post("/transaction/use", Map.of(
+                "userId", account.userId,
+                "accountNumber", account.accountNumber,
+                "amount", options.getAmount())));
+        if (response != null && !response.hasNonNull("errorCode")) {
+            String transactionId = response.get("transactionId").asText();
+            pendingCancels.offer(new UsedTransaction(transactionId, account.accountNumber));
+            recentTransactions.set(
+                    (int) (recentIndex.getAndIncrement() % RECENT_TRANSACTIONS), transactionId);
+        }
+    }
+
+    private void listAccounts(AccountRef account) throws InterruptedException {
+        send(Scenario.LIST, () -> get("/account?user_id=" + account.userId));
+    }
+
+    /**
+     * 요청 하나를 보내고 응답 시간과 결과를 기록한다.
+     * 실패 응답도 200 으로 오므로 응답의 errorCode 로 구분한다.
+     */
+    private JsonNode send(Scenario scenario, Call call) throws InterruptedException {
+        long start = System.nanoTime();
+        JsonNode response = null;
+        String errorCode;
+        try {
+            response = call.execute();
+            errorCode = response.isObject() && response.hasNonNull("errorCode")
+                    ? response.get("errorCode").asText() : null;
+        } catch (IOException e) {
+            errorCode = "IO_ERROR";
+        }
+        stats.get(scenario).record(
+                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), errorCode);
+        return response;
+    }
+
+    private JsonNode post(String path, Object body) throws IOException, InterruptedException {
+        return execute(request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build());
+    }
+
+    private JsonNode get(String path) throws IOException, InterruptedException {
+        return execute(request(path).GET().build());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+    }
+
+    private JsonNode execute(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response =
+                httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode() + " : " + request.uri());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private void printReport(double seconds) {
+        StringBuilder report = new StringBuilder("\n")
+                .append(String.format("%-8s %10s %10s %10s %10s %10s %10s %10s %10s%n",
+                        "scenario", "requests", "req/s", "failures", "lock fail",
+                        "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)"));
+
+        Histogram total = new Histogram(3);
+        long totalLockFailures = 0;
+        long totalFailures = 0;
+        for (Map.Entry<Scenario, ScenarioStats> entry : stats.entrySet()) {
+            ScenarioStats scenarioStats = entry.getValue();
+            Histogram histogram = scenarioStats.getHistogram();
+            total.add(histogram);
+            totalFailures += scenarioStats.getFailures();
+            totalLockFailures += scenarioStats.getLockFailures();
+
+            appendRow(report, entry.getKey().getKey(), histogram,
+                    scenarioStats.getFailures(), scenarioStats.getLockFailures(), seconds);
+        }
+        appendRow(report, "total", total, totalFailures, totalLockFailures, seconds);
+
+        stats.forEach((scenario, scenarioStats) -> {
+            if (!scenarioStats.getFailuresByCode().isEmpty()) {
+                report.append(String.format("%s failures : %s%n",
+                        scenario.getKey(), scenarioStats.getFailuresByCode()));
+            }
+        });
+        log.info("Load test finished.{}", report);
+    }
+
+    private static void appendRow(StringBuilder report, String name, Histogram histogram,
+                                  long failures, long lockFailures, double seconds) {
+        long requests = histogram.getTotalCount();
+        report.append(String.format("%-8s %10d %10.1f %10s %10s %10.2f %10.2f %10.2f %10.2f%n",
+                name, requests, requests / seconds,
+                rate(failures, requests), rate(lockFailures, requests),
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0));
+    }
+
+    private static String rate(long count, long requests) {
+        return requests == 0 ? "-" : String.format("%.2f%%", count * 100.0 / requests);
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        JsonNode execute() throws IOException, InterruptedException;
+    }
+
+    @AllArgsConstructor
+    private static class AccountRef {
+        private final Long userId;
+        private final String accountNumber;
+    }
+
+    @AllArgsConstructor
+    private static class UsedTransaction {
+        private final String transactionId;
+        private final String accountNumber;
+    }
+}
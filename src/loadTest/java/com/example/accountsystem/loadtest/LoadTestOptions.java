@@ -0,0 +1,91 @@
+package com.example.accountsystem.loadtest;
+
+import lombok.Getter;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 부하 테스트 설정 (-Ploadtest.xxx 로 지정한다.)
+ * 1. concurrency : 동시에 요청을 보내는 클라이언트 수 (응답을 받아야 다음 요청을 보낸다.)
+ * 2. duration, warmup : 측정 시간, 측정 전에 버리는 시간
+ * 3. accounts, initial-balance : 미리 만들어 두는 계좌 수와 잔액
+ * 4. skew : 계좌 선택의 Zipf 지수 (0 이면 고르게, 클수록 일부 계좌에 몰린다.)
+ * 5. mix : 요청 종류별 비중 (예 : create=1,use=60,cancel=20,query=10,list=9)
+ * 6. use-delay : 잔액 사용 API 의 인위적인 지연 (account.transaction.use-delay-ms, 기본 0)
+ */
+@Getter
+public class LoadTestOptions {
+    private static final String PREFIX = "loadtest.";
+
+    private final int concurrency;
+    private final Duration duration;
+    private final Duration warmup;
+    private final int accounts;
+    private final long initialBalance;
+    private final long amount;
+    private final double skew;
+    private final Map<Scenario, Integer> mix;
+    private final Duration useDelay;
+
+    private LoadTestOptions() {
+        this.concurrency = Integer.parseInt(get("concurrency", "32"));
+        this.duration = DurationStyle.detectAndParse(get("duration", "60s"));
+        this.warmup = DurationStyle.detectAndParse(get("warmup", "10s"));
+        this.accounts = Integer.parseInt(get("accounts", "100"));
+        this.initialBalance = Long.parseLong(get("initial-balance", "1000000000"));
+        this.amount = Long.parseLong(get("amount", "1000"));
+        this.skew = Double.parseDouble(get("skew", "1.0"));
+        this.mix = parseMix(get("mix", ""));
+        this.useDelay = DurationStyle.detectAndParse(get("use-delay", "0ms"));
+
+        if (concurrency < 1 || accounts < 1 || skew < 0 || useDelay.isNegative()
+                || mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Invalid load test options : " + this);
+        }
+    }
+
+    public static LoadTestOptions fromSystemProperties() {
+        return new LoadTestOptions();
+    }
+
+    private static String get(String name, String defaultValue) {
+        return System.getProperty(PREFIX + name, defaultValue);
+    }
+
+    // 지정하지 않은 요청 종류는 기본 비중을 쓴다.
+    private static Map<Scenario, Integer> parseMix(String value) {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        for (Scenario scenario : Scenario.values()) {
+            mix.put(scenario, scenario.getDefaultWeight());
+        }
+
+        for (String entry : value.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] pair = entry.split("=");
+            Scenario scenario = findScenario(pair[0].trim());
+            mix.put(scenario, Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+
+    private static Scenario findScenario(String key) {
+        for (Scenario scenario : Scenario.values()) {
+            if (scenario.getKey().equals(key)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scenario in loadtest.mix : " + key);
+    }
+
+    @Override
+    public String toString() {
+        return "concurrency=" + concurrency + ", duration=" + duration + ", warmup=" + warmup
+                + ", accounts=" + accounts + ", skew=" + skew + ", mix=" + mix
+                + ", useDelay=" + useDelay;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.accountsystem.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 부하 테스트에서 보내는 요청 종류 (src/test/http 의 요청들)
+ */
+@Getter
+@AllArgsConstructor
+public enum Scenario {
+    CREATE("create", 1), // POST /account
+    USE("use", 60), // POST /transaction/use
+    CANCEL("cancel", 20), // POST /transaction/cancel
+    QUERY("query", 10), // GET /transaction/{transactionId}
+    LIST("list", 9); // GET /account?user_id=
+
+    private final String key; // loadtest.mix 에서 쓰는 이름
+    private final int defaultWeight;
+}
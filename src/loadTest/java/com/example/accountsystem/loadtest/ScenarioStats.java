@@ -0,0 +1,70 @@
+package com.example.accountsystem.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 요청 종류별 응답 시간(마이크로초)과 결과
+ * 여러 클라이언트 스레드가 lock 없이 함께 기록한다.
+ */
+public class ScenarioStats {
+    static final String LOCK_FAILURE = "ACCOUNT_TRANSACTION_LOCK";
+
+    private final Recorder recorder = new Recorder(3);
+    private final LongAdder successes = new LongAdder();
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+    private Histogram histogram;
+
+    public void record(long latencyMicros, String errorCode) {
+        recorder.recordValue(latencyMicros);
+        if (errorCode == null) {
+            successes.increment();
+        } else {
+            failures.computeIfAbsent(errorCode, key -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * 지금까지 기록한 내용을 버리고 새로 측정한다.
+     */
+    public void reset() {
+        recorder.getIntervalHistogram();
+        successes.reset();
+        failures.clear();
+    }
+
+    /**
+     * 측정을 끝내고 응답 시간 분포를 확정한다.
+     */
+    public void finish() {
+        histogram = recorder.getIntervalHistogram();
+    }
+
+    public Histogram getHistogram() {
+        return histogram;
+    }
+
+    public long getSuccesses() {
+        return successes.sum();
+    }
+
+    public long getFailures() {
+        return failures.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public long getLockFailures() {
+        LongAdder lockFailures = failures.get(LOCK_FAILURE);
+        return lockFailures == null ? 0 : lockFailures.sum();
+    }
+
+    public Map<String, Long> getFailuresByCode() {
+        Map<String, Long> result = new TreeMap<>();
+        failures.forEach((code, count) -> result.put(code, count.sum()));
+        return result;
+    }
+}
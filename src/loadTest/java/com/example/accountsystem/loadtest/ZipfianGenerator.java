@@ -0,0 +1,29 @@
+package com.example.accountsystem.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 0 ~ n-1 중 하나를 Zipf 분포로 고른다. (작은 번호일수록 자주 뽑힌다.)
+ * i 번째가 뽑힐 확률은 1 / (i+1)^skew 에 비례한다.
+ */
+public class ZipfianGenerator {
+    private final double[] cumulative;
+
+    public ZipfianGenerator(int n, double skew) {
+        cumulative = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1 / Math.pow(i + 1, skew);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    public int next() {
+        int index = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+}
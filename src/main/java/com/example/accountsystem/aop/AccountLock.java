@@ -1,5 +1,7 @@
 package com.example.accountsystem.aop;
 
+import com.example.accountsystem.type.TransactionType;
+
 import java.lang.annotation.*;
 
 @Target(ElementType.METHOD)
@@ -7,5 +9,7 @@ import java.lang.annotation.*;
 @Documented
 @Inherited
 public @interface AccountLock {
+    TransactionType type(); // 거래 종류별로 설정된 동시성 제어 방식을 따른다.
+
     long tryLockTime() default 5000L;
 }
@@ -0,0 +1,15 @@
+package com.example.accountsystem.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 서버 로컬 캐시 (Caffeine)
+ * 크기, 만료 시간은 spring.cache.caffeine.spec 으로 설정하고,
+ * 적중/실패 횟수는 actuator 의 cache.gets 지표로 확인한다.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String ACCOUNT_USER = "accountUser";
+}
@@ -0,0 +1,89 @@
+package com.example.accountsystem.config;
+
+import com.example.accountsystem.type.ConcurrencyMode;
+import com.example.accountsystem.type.TransactionType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+
+import static com.example.accountsystem.type.ConcurrencyMode.ATOMIC;
+import static com.example.accountsystem.type.ConcurrencyMode.BATCHED;
+import static com.example.accountsystem.type.ConcurrencyMode.OPTIMISTIC;
+import static com.example.accountsystem.type.ConcurrencyMode.PESSIMISTIC;
+import static com.example.accountsystem.type.ConcurrencyMode.REDIS;
+
+/**
+ * 거래 종류별 동시성 제어 방식
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.concurrency")
+public class ConcurrencyProperties {
+    private ConcurrencyMode use = PESSIMISTIC;
+    private ConcurrencyMode cancel = PESSIMISTIC;
+    private Optimistic optimistic = new Optimistic();
+    private Batch batch = new Batch();
+    private Redis redis = new Redis();
+
+    @PostConstruct
+    public void validate() {
+        if (cancel == BATCHED) {
+            throw new IllegalStateException("account.concurrency.cancel cannot be BATCHED");
+        }
+
+        // Redis 의 잔액이 기준이므로 DB 의 잔액을 바꾸는 방식과 함께 쓸 수 없다.
+        if ((use == REDIS) != (cancel == REDIS)) {
+            throw new IllegalStateException(
+                    "REDIS must be set for both use and cancel in account.concurrency");
+        }
+
+        // lock 없이 잔액을 바꾸는 요청과 함께 쓰면 lock 을 쓰는 쪽의 버전 충돌이 재시도 없이 실패로 끝난다.
+        if ((isLockFree(use) && isLocked(cancel)) || (isLockFree(cancel) && isLocked(use))) {
+            throw new IllegalStateException("ATOMIC and OPTIMISTIC can only be combined with "
+                    + "ATOMIC or OPTIMISTIC in account.concurrency");
+        }
+    }
+
+    public boolean isRedis() {
+        return use == REDIS;
+    }
+
+    public ConcurrencyMode getMode(TransactionType transactionType) {
+        return transactionType == TransactionType.USE ? use : cancel;
+    }
+
+    private static boolean isLocked(ConcurrencyMode mode) {
+        return mode == PESSIMISTIC || mode == BATCHED;
+    }
+
+    private static boolean isLockFree(ConcurrencyMode mode) {
+        return mode == ATOMIC || mode == OPTIMISTIC;
+    }
+
+    @Getter
+    @Setter
+    public static class Optimistic {
+        private int maxAttempts = 3; // 최초 시도를 포함한 최대 시도 횟수
+        private Duration backoff = Duration.ofMillis(10); // 재시도마다 두 배로 늘어난다.
+        private Duration maxBackoff = Duration.ofMillis(100);
+    }
+
+    @Getter
+    @Setter
+    public static class Batch {
+        private Duration window = Duration.ofMillis(2); // 첫 요청 이후 다른 요청을 기다리는 시간
+        private int maxSize = 32; // 한 번에 처리하는 최대 요청 수
+    }
+
+    @Getter
+    @Setter
+    public static class Redis {
+        private int batchSize = 100; // DB 에 한 번에 기록하는 최대 거래 수
+        private Duration flushInterval = Duration.ofMillis(100); // 기록할 거래가 없을 때 다시 확인하는 간격
+    }
+}
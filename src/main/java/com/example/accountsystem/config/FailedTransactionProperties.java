@@ -0,0 +1,21 @@
+package com.example.accountsystem.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 실패한 거래 기록 대기열 설정
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.failed-transaction")
+public class FailedTransactionProperties {
+    private int capacity = 10000; // 대기열이 가득 차면 기록하지 않고 버린다.
+    private int batchSize = 100; // 한 번에 기록하는 최대 건수
+    private Duration flushInterval = Duration.ofMillis(100); // 첫 건을 꺼낸 뒤 더 모으는 최대 시간
+}
@@ -0,0 +1,23 @@
+package com.example.accountsystem.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 경합이 심한 계좌 집계 설정
+ * 메모리는 계좌 수와 관계없이 capacity * buckets * stripes 개의 카운터로 고정된다.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.hot-account")
+public class HotAccountProperties {
+    private int capacity = 64; // 구간마다 추적하는 계좌 수 (조회하는 top-K 보다 넉넉하게 둔다.)
+    private Duration bucketDuration = Duration.ofSeconds(10); // 집계 구간 길이
+    private int buckets = 90; // 보관하는 구간 수 (조회 가능한 최대 기간 = bucket-duration * buckets)
+    private int stripes = 8; // 구간마다 스레드별로 나눠 기록하는 요약 수 (2의 거듭제곱으로 올림)
+}
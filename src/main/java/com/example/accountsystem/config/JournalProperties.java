@@ -0,0 +1,24 @@
+package com.example.accountsystem.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * 거래 저널 설정
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.journal")
+public class JournalProperties {
+    private boolean enabled = false; // 사용하면 거래를 DB 대신 저널에 먼저 기록한다.
+    private String directory = "journal";
+    private DataSize segmentSize = DataSize.ofMegabytes(64); // 다 차면 새 파일에 기록한다.
+    private int batchSize = 500; // DB 에 한 번에 기록하는 최대 건수
+    private Duration applyInterval = Duration.ofMillis(50); // 기록할 거래가 없을 때 다시 확인하는 간격
+}
@@ -0,0 +1,18 @@
+package com.example.accountsystem.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 거래 내역으로 잔액을 계산하는 방식 설정
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.ledger")
+public class LedgerProperties {
+    private boolean enabled = false; // 사용하면 계좌의 잔액 컬럼 대신 스냅샷 + 이후 거래로 잔액을 계산한다.
+    private int snapshotInterval = 100; // 스냅샷 이후 거래가 이만큼 쌓이면 새 스냅샷을 남긴다.
+}
@@ -1,6 +1,7 @@
 package com.example.accountsystem.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import redis.embedded.RedisServer;
 
@@ -8,6 +9,7 @@ import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 
 @Configuration
+@Conditional(RedisRequiredCondition.class)
 public class LocalRedisConfig {
     @Value("${spring.redis.port}")
     private int redisPort;
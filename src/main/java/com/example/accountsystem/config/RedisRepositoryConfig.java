@@ -5,9 +5,11 @@ import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@Conditional(RedisRequiredCondition.class)
 public class RedisRepositoryConfig {
     @Value("${spring.redis.host}")
     private String redisHost;
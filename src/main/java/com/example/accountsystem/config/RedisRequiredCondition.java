@@ -0,0 +1,24 @@
+package com.example.accountsystem.config;
+
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+/**
+ * Redis 를 쓰는 설정일 때만 Redis(내장 서버, Redisson)를 띄운다.
+ * 1. account.lock.provider=redis (기본값)
+ * 2. account.concurrency.use=redis
+ * 그 밖의 경우(단일 서버)에는 캐시 무효화 알림도 보내지 않는다.
+ */
+public class RedisRequiredCondition extends AnyNestedCondition {
+    RedisRequiredCondition() {
+        super(ConfigurationPhase.REGISTER_BEAN);
+    }
+
+    @ConditionalOnProperty(name = "account.lock.provider", havingValue = "redis", matchIfMissing = true)
+    static class RedisLock {
+    }
+
+    @ConditionalOnProperty(name = "account.concurrency.use", havingValue = "redis")
+    static class RedisBalance {
+    }
+}
@@ -4,11 +4,20 @@ import com.example.accountsystem.domain.Account;
 import com.example.accountsystem.dto.AccountInfo;
 import com.example.accountsystem.dto.CreateAccount;
 import com.example.accountsystem.dto.DeleteAccount;
+import com.example.accountsystem.dto.QueryBalanceResponse;
 import com.example.accountsystem.service.AccountService;
+import com.example.accountsystem.service.StatementService;
+import com.example.accountsystem.type.StatementFormat;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,6 +26,7 @@ import java.util.stream.Collectors;
 public class AccountController {
 
     private final AccountService accountService;
+    private final StatementService statementService;
 
     @PostMapping("/account")
     public CreateAccount.Response createAccount(
@@ -53,6 +63,37 @@ public class AccountController {
                 .collect(Collectors.toList());
     }
 
+    @GetMapping("/account/{accountNumber}/balance")
+    public QueryBalanceResponse getBalanceAt(
+            @PathVariable String accountNumber,
+            @RequestParam("at") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at
+    ) {
+        return QueryBalanceResponse.from(
+                accountService.getBalanceAt(accountNumber, at)
+        );
+    }
+
+    /**
+     * 거래 내역을 읽는 대로 내보낸다. (format : NDJSON, CSV)
+     */
+    @GetMapping("/account/{accountNumber}/statement")
+    public ResponseEntity<StreamingResponseBody> getStatement(
+            @PathVariable String accountNumber,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "format", defaultValue = "NDJSON") StatementFormat format
+    ) {
+        statementService.validateStatement(accountNumber, from, to);
+
+        StreamingResponseBody body = outputStream -> statementService.writeStatement(
+                accountNumber, from, to, format, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"statement-"
+                        + accountNumber + "." + format.getExtension() + "\"")
+                .body(body);
+    }
+
     @GetMapping("/account/{id}")
     public Account getAccount(@PathVariable Long id) {
         return accountService.getAccount(id);
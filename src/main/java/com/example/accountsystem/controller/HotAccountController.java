@@ -0,0 +1,42 @@
+package com.example.accountsystem.controller;
+
+import com.example.accountsystem.dto.HotAccount;
+import com.example.accountsystem.exception.AccountException;
+import com.example.accountsystem.service.HotAccountDetector;
+import com.example.accountsystem.type.ErrorCode;
+import com.example.accountsystem.type.HotAccountMetric;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 운영용 컨트롤러
+ * 1. lock 경합이 심한 계좌 조회 (window : 1m, 5m, 15m 등)
+ */
+@RestController
+@RequiredArgsConstructor
+public class HotAccountController {
+    private final HotAccountDetector hotAccountDetector;
+
+    @GetMapping("/admin/hot-accounts")
+    public List<HotAccount> getHotAccounts(
+            @RequestParam(value = "window", defaultValue = "1m") String window,
+            @RequestParam(value = "by", defaultValue = "FAILURES") HotAccountMetric metric,
+            @RequestParam(value = "limit", defaultValue = "10") int limit
+    ) {
+        return hotAccountDetector.getHotAccounts(parseWindow(window), metric, limit);
+    }
+
+    private Duration parseWindow(String window) {
+        try {
+            return DurationStyle.detectAndParse(window);
+        } catch (IllegalArgumentException e) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+    }
+}
@@ -1,70 +1,146 @@
 package com.example.accountsystem.controller;
 
 import com.example.accountsystem.aop.AccountLock;
+import com.example.accountsystem.config.ConcurrencyProperties;
 import com.example.accountsystem.dto.CancelBalance;
+import com.example.accountsystem.dto.FailedTransaction;
 import com.example.accountsystem.dto.QueryTransactionResponse;
+import com.example.accountsystem.dto.QueryTransactionsResponse;
+import com.example.accountsystem.dto.TransactionOutcome;
 import com.example.accountsystem.dto.UseBalance;
+import com.example.accountsystem.dto.UseBalanceBatch;
 import com.example.accountsystem.exception.AccountException;
+import com.example.accountsystem.service.FailedTransactionRecorder;
+import com.example.accountsystem.service.RedisBalanceService;
 import com.example.accountsystem.service.TransactionService;
+import com.example.accountsystem.service.UseBalanceBatcher;
+import com.example.accountsystem.type.ConcurrencyMode;
+import com.example.accountsystem.type.TransactionResultType;
+import com.example.accountsystem.type.TransactionType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.util.List;
+
+import static com.example.accountsystem.type.TransactionType.CANCEL;
+import static com.example.accountsystem.type.TransactionType.USE;
 
 /**
  * 잔액 관련 컨트롤러
  * 1. 잔액 사용
  * 2. 잔액 사용 취소
  * 3. 거래 확인
+ * 4. 잔액 일괄 사용
+ * 5. 거래 내역 조회
  */
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 public class TransactionController {
     private final TransactionService transactionService;
+    private final UseBalanceBatcher useBalanceBatcher;
+    private final ConcurrencyProperties concurrencyProperties;
+    private final FailedTransactionRecorder failedTransactionRecorder;
+    private final RedisBalanceService redisBalanceService;
+
+    @Value("${account.transaction.use-delay-ms:3000}")
+    private long useDelayMillis; // 잔액 사용 중에 다른 요청이 lock 에 막히는지 확인하기 위한 지연
 
     @PostMapping("/transaction/use")
-    @AccountLock
+    @AccountLock(type = USE)
     public UseBalance.Response useBalance(
             @Valid @RequestBody UseBalance.Request request
     ) throws InterruptedException {
         try {
-            Thread.sleep(3000L);
+            Thread.sleep(useDelayMillis);
+            if (redisBalanceService.isEnabled()) {
+                return UseBalance.Response.from(
+                        redisBalanceService.useBalance(request.getUserId(),
+                                request.getAccountNumber(), request.getAmount())
+                );
+            }
+            if (concurrencyProperties.getUse() == ConcurrencyMode.BATCHED) {
+                return UseBalance.Response.from(
+                        useBalanceBatcher.useBalance(request.getUserId(),
+                                request.getAccountNumber(), request.getAmount())
+                );
+            }
             return UseBalance.Response.from(
                     transactionService.useBalance(request.getUserId(),
                             request.getAccountNumber(), request.getAmount())
             );
         } catch (AccountException e) {
             log.error("Failed to use balance.");
-            transactionService.saveFailedUseTransaction(
-                    request.getAccountNumber(), request.getAmount()
-            );
+            failedTransactionRecorder.record(FailedTransaction.of(
+                    USE, request.getAccountNumber(), request.getAmount()
+            ));
 
             throw e;
         }
     }
 
+    @PostMapping("/transaction/use/batch")
+    public UseBalanceBatch.Response useBalances(
+            @Valid @RequestBody UseBalanceBatch.Request request
+    ) {
+        List<TransactionOutcome> outcomes =
+                useBalanceBatcher.useBalances(request.getRequests());
+
+        for (int i = 0; i < outcomes.size(); i++) {
+            if (!outcomes.get(i).isSuccess()) {
+                UseBalance.Request failed = request.getRequests().get(i);
+                failedTransactionRecorder.record(FailedTransaction.of(
+                        USE, failed.getAccountNumber(), failed.getAmount()
+                ));
+            }
+        }
+
+        return UseBalanceBatch.Response.from(request.getRequests(), outcomes);
+    }
+
     @PostMapping("/transaction/cancel")
-    @AccountLock
+    @AccountLock(type = CANCEL)
     public CancelBalance.Response cancelBalance(
             @Valid @RequestBody CancelBalance.Request request
     ) {
         try {
+            if (redisBalanceService.isEnabled()) {
+                return CancelBalance.Response.from(
+                        redisBalanceService.cancelBalance(request.getTransactionId(),
+                                request.getAccountNumber(), request.getAmount())
+                );
+            }
             return CancelBalance.Response.from(
                     transactionService.cancelBalance(request.getTransactionId(),
                             request.getAccountNumber(), request.getAmount())
             );
         } catch (AccountException e) {
             log.error("Failed to use balance.");
-            transactionService.saveFailedCancelTransaction(
-                    request.getAccountNumber(), request.getAmount()
-            );
+            failedTransactionRecorder.record(FailedTransaction.of(
+                    CANCEL, request.getAccountNumber(), request.getAmount()
+            ));
 
             throw e;
         }
     }
 
+    @GetMapping("/transaction")
+    public QueryTransactionsResponse queryTransactions(
+            @RequestParam("account_number") String accountNumber,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            @RequestParam(value = "type", required = false) TransactionType transactionType,
+            @RequestParam(value = "result", required = false) TransactionResultType transactionResultType
+    ) {
+        return QueryTransactionsResponse.from(
+                transactionService.queryTransactions(accountNumber, after, limit,
+                        transactionType, transactionResultType)
+        );
+    }
+
     @GetMapping("/transaction/{transactionId}")
     public QueryTransactionResponse queryTransaction(
             @PathVariable String transactionId) {
@@ -14,8 +14,13 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
+@Table(indexes = {
+        @Index(name = "ux_account_account_number", columnList = "accountNumber", unique = true),
+        @Index(name = "ix_account_account_user_id", columnList = "account_user_id")
+})
 public class Account extends BaseEntity {
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_user_id") // 인덱스에서 컬럼 이름으로 참조한다.
     private AccountUser accountUser; // 소유자 정보
     
     private String accountNumber; // 계좌 번호
@@ -27,6 +32,9 @@ public class Account extends BaseEntity {
     private LocalDateTime registeredAt; // 계좌 등록일시
     private LocalDateTime unRegisteredAt; // 계좌 해지일시
 
+    @Version
+    private Long version; // 낙관적 lock 버전
+
     public void useBalance(Long amount) {
         if (amount > balance) {
             throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
@@ -0,0 +1,28 @@
+package com.example.accountsystem.domain;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+/**
+ * 계좌의 잔액 스냅샷 (account.ledger.enabled=true)
+ * lastTransactionId 까지의 성공한 거래를 반영한 잔액이다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(indexes = {
+        @Index(name = "ix_account_balance_snapshot_account_id_last_transaction_id",
+                columnList = "account_id, lastTransactionId") // 계좌의 최신 스냅샷
+})
+public class AccountBalanceSnapshot extends BaseEntity {
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id") // 인덱스에서 컬럼 이름으로 참조한다.
+    private Account account;
+
+    private Long balance; // 스냅샷 잔액
+    private Long lastTransactionId; // 반영한 마지막 거래의 id (Transaction.id)
+}
@@ -0,0 +1,24 @@
+package com.example.accountsystem.domain;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 계좌가 생성되거나 잔액, 상태가 바뀌었음을 알린다.
+ * 커밋된 뒤에 처리하므로 계좌에는 커밋된 값과 버전이 들어 있다.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class AccountChangedEvent {
+    private Account account;
+    private boolean stale; // 엔티티를 거치지 않고 DB 에서 바로 바뀌어 계좌의 값이 최신이 아님
+
+    public static AccountChangedEvent changed(Account account) {
+        return new AccountChangedEvent(account, false);
+    }
+
+    public static AccountChangedEvent changedInDatabase(Account account) {
+        return new AccountChangedEvent(account, true);
+    }
+}
@@ -3,6 +3,7 @@ package com.example.accountsystem.domain;
 import lombok.*;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 
 @Getter
 @Setter
@@ -10,6 +11,7 @@ import javax.persistence.Entity;
 @AllArgsConstructor
 @Builder
 @Entity
+@EntityListeners(AccountUserCacheListener.class)
 public class AccountUser extends BaseEntity { // 소유자 정보
     private String name;
 }
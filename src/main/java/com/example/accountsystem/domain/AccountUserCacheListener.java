@@ -0,0 +1,24 @@
+package com.example.accountsystem.domain;
+
+import com.example.accountsystem.service.AccountUserCacheInvalidator;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * 사용자가 수정되거나 삭제되면 캐시를 무효화한다.
+ */
+public class AccountUserCacheListener {
+    private final ObjectProvider<AccountUserCacheInvalidator> invalidator;
+
+    public AccountUserCacheListener(ObjectProvider<AccountUserCacheInvalidator> invalidator) {
+        this.invalidator = invalidator;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void invalidate(AccountUser accountUser) {
+        invalidator.ifAvailable(it -> it.invalidate(accountUser.getId()));
+    }
+}
@@ -13,6 +13,11 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
+@Table(indexes = {
+        @Index(name = "ux_transaction_transaction_id", columnList = "transactionId", unique = true),
+        @Index(name = "ix_transaction_account_id_transacted_at", columnList = "account_id, transactedAt"), // 계좌별 거래 내역
+        @Index(name = "ix_transaction_account_id_id", columnList = "account_id, id") // 스냅샷 이후의 거래
+})
 public class Transaction extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private TransactionType transactionType; // 거래 종류
@@ -20,7 +25,8 @@ public class Transaction extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private TransactionResultType transactionResultType; // 거래 결과
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id") // 인덱스에서 컬럼 이름으로 참조한다.
     private Account account; // 거래가 발생한 계좌
 
     private Long amount; // 거래 금액
@@ -16,6 +16,7 @@ public class AccountDto { // controller-service 간의 응답
     private Long balance;
     private LocalDateTime registeredAt;
     private LocalDateTime unRegisteredAt;
+    private Long version; // 캐시에서 더 최신 값인지 비교할 때 쓴다.
 
     public static AccountDto fromEntity(Account account) {
         return AccountDto.builder()
@@ -24,6 +25,7 @@ public class AccountDto { // controller-service 간의 응답
                 .balance(account.getBalance())
                 .registeredAt(account.getRegisteredAt())
                 .unRegisteredAt(account.getUnRegisteredAt())
+                .version(account.getVersion())
                 .build();
     }
 }
@@ -0,0 +1,18 @@
+package com.example.accountsystem.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceDto { // 특정 시점의 잔액
+    private String accountNumber;
+    private Long balance;
+    private LocalDateTime at; // 조회한 시점
+    private String transactionId; // 잔액의 기준이 된 거래 (해당 시점 이전에 거래가 없으면 null)
+    private LocalDateTime transactedAt;
+}
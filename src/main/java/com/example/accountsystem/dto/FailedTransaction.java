@@ -0,0 +1,25 @@
+package com.example.accountsystem.dto;
+
+import com.example.accountsystem.type.TransactionType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 나중에 기록할 실패한 거래
+ * 거래일시는 기록 시점이 아니라 실패한 시점으로 남긴다.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class FailedTransaction {
+    private TransactionType transactionType;
+    private String accountNumber;
+    private Long amount;
+    private LocalDateTime transactedAt;
+
+    public static FailedTransaction of(TransactionType transactionType,
+                                       String accountNumber, Long amount) {
+        return new FailedTransaction(transactionType, accountNumber, amount,
+                LocalDateTime.now());
+    }
+}
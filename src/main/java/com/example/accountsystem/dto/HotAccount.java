@@ -0,0 +1,14 @@
+package com.example.accountsystem.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HotAccount {
+    private String accountNumber;
+    private long value; // 기준(HotAccountMetric)의 추정값
+    private long maxError; // 추정값이 실제보다 클 수 있는 최대치
+}
@@ -0,0 +1,76 @@
+package com.example.accountsystem.dto;
+
+import com.example.accountsystem.domain.Account;
+import com.example.accountsystem.domain.Transaction;
+import com.example.accountsystem.type.JournalRecordType;
+import com.example.accountsystem.type.TransactionResultType;
+import com.example.accountsystem.type.TransactionType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 저널에 기록된 거래
+ * endPosition 은 저널에서 다음 기록이 시작하는 위치로, 읽을 때만 채워진다.
+ * 커밋 기록과 취소 기록(recordType 이 COMMITTED, ABORTED)에는 transactionId 만 들어 있다.
+ */
+@Getter
+@Builder(toBuilder = true)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class JournalRecord {
+    private TransactionType transactionType;
+    private TransactionResultType transactionResultType;
+    private Long accountId;
+    private String accountNumber;
+    private Long amount;
+    private Long balanceSnapshot;
+    private String transactionId;
+    private LocalDateTime transactedAt;
+    @Builder.Default
+    private JournalRecordType recordType = JournalRecordType.TRANSACTION;
+    private long endPosition;
+
+    public static JournalRecord from(Transaction transaction) {
+        return JournalRecord.builder()
+                .transactionType(transaction.getTransactionType())
+                .transactionResultType(transaction.getTransactionResultType())
+                .accountId(transaction.getAccount().getId())
+                .accountNumber(transaction.getAccount().getAccountNumber())
+                .amount(transaction.getAmount())
+                .balanceSnapshot(transaction.getBalanceSnapshot())
+                .transactionId(transaction.getTransactionId())
+                .transactedAt(transaction.getTransactedAt())
+                .build();
+    }
+
+    public JournalRecord toMarker(JournalRecordType recordType) {
+        return JournalRecord.builder()
+                .recordType(recordType)
+                .transactionId(transactionId)
+                .build();
+    }
+
+    public Transaction toTransaction(Account account) {
+        return Transaction.builder()
+                .transactionType(transactionType)
+                .transactionResultType(transactionResultType)
+                .account(account)
+                .amount(amount)
+                .balanceSnapshot(balanceSnapshot)
+                .transactionId(transactionId)
+                .transactedAt(transactedAt)
+                .build();
+    }
+
+    public TransactionDto toTransactionDto() {
+        return TransactionDto.builder()
+                .accountNumber(accountNumber)
+                .transactionType(transactionType)
+                .transactionResultType(transactionResultType)
+                .amount(amount)
+                .balanceSnapshot(balanceSnapshot)
+                .transactionId(transactionId)
+                .transactedAt(transactedAt)
+                .build();
+    }
+}
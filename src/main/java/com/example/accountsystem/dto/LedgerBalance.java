@@ -0,0 +1,22 @@
+package com.example.accountsystem.dto;
+
+import com.example.accountsystem.type.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 거래 내역으로 계산한 잔액
+ * eventCount 는 마지막 스냅샷 이후 반영한 거래 수다.
+ */
+@Getter
+@AllArgsConstructor
+public class LedgerBalance {
+    private Long balance;
+    private Long eventCount;
+
+    public LedgerBalance apply(TransactionType transactionType, Long amount) {
+        return new LedgerBalance(
+                transactionType == TransactionType.USE ? balance - amount : balance + amount,
+                eventCount + 1);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.accountsystem.dto;
+
+import com.example.accountsystem.type.TransactionType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Redis 에서 잔액을 바꾼 뒤 DB 에 기록할 거래 (account.concurrency.use=redis)
+ * 잔액은 거래 직후의 Redis 잔액이다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerEntry {
+    private TransactionType transactionType;
+    private String transactionId;
+    private String accountNumber;
+    private Long amount;
+    private Long balance;
+    private LocalDateTime transactedAt;
+}
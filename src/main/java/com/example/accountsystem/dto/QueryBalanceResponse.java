@@ -0,0 +1,28 @@
+package com.example.accountsystem.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QueryBalanceResponse {
+    private String accountNumber;
+    private Long balance;
+    private LocalDateTime at;
+    private String transactionId;
+    private LocalDateTime transactedAt;
+
+    public static QueryBalanceResponse from(BalanceDto balanceDto) {
+        return QueryBalanceResponse.builder()
+                .accountNumber(balanceDto.getAccountNumber())
+                .balance(balanceDto.getBalance())
+                .at(balanceDto.getAt())
+                .transactionId(balanceDto.getTransactionId())
+                .transactedAt(balanceDto.getTransactedAt())
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.accountsystem.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QueryTransactionsResponse {
+    private List<QueryTransactionResponse> transactions;
+    private String next;
+
+    public static QueryTransactionsResponse from(TransactionPage transactionPage) {
+        return QueryTransactionsResponse.builder()
+                .transactions(transactionPage.getTransactions().stream()
+                        .map(QueryTransactionResponse::from)
+                        .collect(Collectors.toList()))
+                .next(transactionPage.getNext())
+                .build();
+    }
+}
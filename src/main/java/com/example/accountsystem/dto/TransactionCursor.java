@@ -0,0 +1,45 @@
+package com.example.accountsystem.dto;
+
+import com.example.accountsystem.domain.Transaction;
+import com.example.accountsystem.exception.AccountException;
+import com.example.accountsystem.type.ErrorCode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 거래 내역을 이어서 조회할 위치 (마지막으로 받은 거래의 거래일시와 id)
+ * 클라이언트는 내용을 알 필요가 없으므로 문자열로 감싸서 주고받는다.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionCursor {
+    private LocalDateTime transactedAt;
+    private Long id;
+
+    public static TransactionCursor from(Transaction transaction) {
+        return new TransactionCursor(transaction.getTransactedAt(), transaction.getId());
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                (transactedAt + "," + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String cursor) {
+        try {
+            String[] values = new String(Base64.getUrlDecoder().decode(cursor),
+                    StandardCharsets.UTF_8).split(",");
+            if (values.length != 2) {
+                throw new AccountException(ErrorCode.INVALID_REQUEST);
+            }
+            return new TransactionCursor(LocalDateTime.parse(values[0]), Long.valueOf(values[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.accountsystem.dto;
+
+import com.example.accountsystem.exception.AccountException;
+import lombok.*;
+
+/**
+ * 여러 건을 한 번에 처리할 때 건별 성공/실패 결과
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class TransactionOutcome {
+    private TransactionDto transaction;
+    private AccountException exception;
+
+    public static TransactionOutcome success(TransactionDto transactionDto) {
+        return new TransactionOutcome(transactionDto, null);
+    }
+
+    public static TransactionOutcome failure(AccountException exception) {
+        return new TransactionOutcome(null, exception);
+    }
+
+    public boolean isSuccess() {
+        return exception == null;
+    }
+}
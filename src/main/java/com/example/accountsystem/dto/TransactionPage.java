@@ -0,0 +1,15 @@
+package com.example.accountsystem.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionPage { // 거래 내역 한 페이지
+    private List<TransactionDto> transactions;
+    private String next; // 다음 페이지의 cursor (마지막 페이지면 null)
+}
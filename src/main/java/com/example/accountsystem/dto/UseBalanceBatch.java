@@ -0,0 +1,83 @@
+package com.example.accountsystem.dto;
+
+import com.example.accountsystem.type.ErrorCode;
+import com.example.accountsystem.type.TransactionResultType;
+import lombok.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class UseBalanceBatch {
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Request {
+        @Valid
+        @NotEmpty
+        @Size(max = 1000)
+        private List<UseBalance.Request> requests;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private List<Item> results;
+
+        public static Response from(List<UseBalance.Request> requests,
+                                    List<TransactionOutcome> outcomes) {
+            List<Item> results = new ArrayList<>(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                results.add(Item.from(requests.get(i), outcomes.get(i)));
+            }
+
+            return Response.builder()
+                    .results(results)
+                    .build();
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Item {
+        private String accountNumber;
+        private TransactionResultType transactionResult;
+        private String transactionId;
+        private Long amount;
+        private LocalDateTime transactedAt;
+        private ErrorCode errorCode; // 실패한 경우에만
+        private String errorMessage;
+
+        public static Item from(UseBalance.Request request, TransactionOutcome outcome) {
+            if (!outcome.isSuccess()) {
+                return Item.builder()
+                        .accountNumber(request.getAccountNumber())
+                        .transactionResult(TransactionResultType.F)
+                        .amount(request.getAmount())
+                        .errorCode(outcome.getException().getErrorCode())
+                        .errorMessage(outcome.getException().getErrorMessage())
+                        .build();
+            }
+
+            TransactionDto transactionDto = outcome.getTransaction();
+            return Item.builder()
+                    .accountNumber(transactionDto.getAccountNumber())
+                    .transactionResult(transactionDto.getTransactionResultType())
+                    .transactionId(transactionDto.getTransactionId())
+                    .amount(transactionDto.getAmount())
+                    .transactedAt(transactionDto.getTransactedAt())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.accountsystem.repository;
+
+import com.example.accountsystem.domain.Account;
+import com.example.accountsystem.domain.AccountBalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AccountBalanceSnapshotRepository extends JpaRepository<AccountBalanceSnapshot, Long> {
+    Optional<AccountBalanceSnapshot> findFirstByAccountOrderByLastTransactionIdDesc(Account account);
+}
@@ -2,19 +2,90 @@ package com.example.accountsystem.repository;
 
 import com.example.accountsystem.domain.Account;
 import com.example.accountsystem.domain.AccountUser;
+import com.example.accountsystem.dto.AccountDto;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
-    Optional<Account> findFirstByOrderByIdDesc(); // id를 내림차순으로 정렬한 후 첫번째 값을 가져온다.
-
     Integer countByAccountUser(AccountUser accountUser);
 
     Optional<Account> findByAccountNumber(String AccountNumber);
 
-    List<Account> findByAccountUser(AccountUser accountUser);
+    boolean existsByAccountNumber(String accountNumber);
+
+    /**
+     * 사용자의 계좌 목록을 한 번의 쿼리로 조회한다.
+     * 사용자가 없으면 빈 목록을, 계좌가 없는 사용자면 계좌번호가 null 인 한 건을 반환한다.
+     */
+    @Query("select new com.example.accountsystem.dto.AccountDto(" +
+            "u.id, a.accountNumber, a.balance, a.registeredAt, a.unRegisteredAt, a.version) " +
+            "from AccountUser u left join Account a on a.accountUser = u " +
+            "where u.id = :userId order by a.id")
+    List<AccountDto> findDtosByUserId(@Param("userId") Long userId);
+
+    @EntityGraph(attributePaths = "accountUser")
+    Optional<Account> findWithAccountUserById(Long id);
+
+    List<Account> findByAccountNumberIn(Collection<String> accountNumbers);
+
+    @Query(value = "select next value for account_number_seq", nativeQuery = true)
+    long nextAccountNumberBlock(); // 계좌번호 블록 번호
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "1000"))
+    @Query("select a from Account a where a.accountNumber = :accountNumber")
+    Optional<Account> findByAccountNumberForUpdate(@Param("accountNumber") String accountNumber);
+
+    /**
+     * 잔액이 충분하고 사용 중인 계좌일 때만 차감하고, 차감 후 잔액을 반환한다.
+     * 조건에 맞지 않아 변경된 row 가 없으면 빈 값을 반환한다.
+     * UPDATE 로 잡은 row lock 이 트랜잭션이 끝날 때까지 유지되므로 다시 읽은 잔액은 이 차감의 결과이다.
+     */
+    default Optional<Long> useBalanceIfSufficient(String accountNumber, Long amount) {
+        if (decreaseBalanceIfSufficient(accountNumber, amount) == 0) {
+            return Optional.empty();
+        }
+        return findBalanceByAccountNumber(accountNumber);
+    }
+
+    /**
+     * 잔액을 더하고, 더한 후 잔액을 반환한다.
+     */
+    default Optional<Long> cancelBalance(String accountNumber, Long amount) {
+        if (increaseBalance(accountNumber, amount) == 0) {
+            return Optional.empty();
+        }
+        return findBalanceByAccountNumber(accountNumber);
+    }
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "update account set balance = balance - :amount, version = version + 1, " +
+            "updated_at = current_timestamp " +
+            "where account_number = :accountNumber and balance >= :amount " +
+            "and account_status = 'IN_USE'", nativeQuery = true)
+    int decreaseBalanceIfSufficient(@Param("accountNumber") String accountNumber,
+                                    @Param("amount") Long amount);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "update account set balance = balance + :amount, version = version + 1, " +
+            "updated_at = current_timestamp " +
+            "where account_number = :accountNumber", nativeQuery = true)
+    int increaseBalance(@Param("accountNumber") String accountNumber,
+                        @Param("amount") Long amount);
+
+    @Query("select a.balance from Account a where a.accountNumber = :accountNumber")
+    Optional<Long> findBalanceByAccountNumber(@Param("accountNumber") String accountNumber);
 }
@@ -1,9 +1,16 @@
 package com.example.accountsystem.repository;
 
+import com.example.accountsystem.config.CacheConfig;
 import com.example.accountsystem.domain.AccountUser;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface AccountUserRepository extends JpaRepository<AccountUser, Long> {
+    @Override
+    @Cacheable(cacheNames = CacheConfig.ACCOUNT_USER, unless = "#result == null") // 없는 사용자는 캐시하지 않는다.
+    Optional<AccountUser> findById(Long id);
 }
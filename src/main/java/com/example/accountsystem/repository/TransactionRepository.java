@@ -1,12 +1,120 @@
 package com.example.accountsystem.repository;
 
+import com.example.accountsystem.domain.Account;
 import com.example.accountsystem.domain.Transaction;
+import com.example.accountsystem.dto.LedgerBalance;
+import com.example.accountsystem.dto.TransactionDto;
+import com.example.accountsystem.type.TransactionResultType;
+import com.example.accountsystem.type.TransactionType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+    String PAGE_FILTER = "and (:transactionType is null or t.transactionType = :transactionType) " +
+            "and (:transactionResultType is null or t.transactionResultType = :transactionResultType) " +
+            "order by t.transactedAt desc, t.id desc";
+
     Optional<Transaction> findByTransactionId(String transactionId);
+
+    boolean existsByTransactionId(String transactionId);
+
+    @Query("select t.transactionId from Transaction t where t.transactionId in :transactionIds")
+    List<String> findTransactionIdsIn(@Param("transactionIds") Collection<String> transactionIds);
+
+    /**
+     * 취소할 거래와 계좌를 한 번에 조회한다.
+     * 계좌는 @Version 으로 변경 시점에 버전을 확인한다.
+     */
+    @Query("select t from Transaction t join fetch t.account a " +
+            "where t.transactionId = :transactionId and a.accountNumber = :accountNumber")
+    Optional<Transaction> findWithAccountByTransactionIdAndAccountNumber(
+            @Param("transactionId") String transactionId,
+            @Param("accountNumber") String accountNumber);
+
+    /**
+     * afterId 이후의 성공한 거래로 바뀐 금액과 거래 수
+     */
+    @Query("select new com.example.accountsystem.dto.LedgerBalance(" +
+            "coalesce(sum(case when t.transactionType = " +
+            "com.example.accountsystem.type.TransactionType.CANCEL " +
+            "then t.amount else -t.amount end), 0L), count(t)) " +
+            "from Transaction t where t.account = :account and t.id > :afterId " +
+            "and t.transactionResultType = com.example.accountsystem.type.TransactionResultType.S")
+    LedgerBalance sumAmountsAfter(@Param("account") Account account,
+                                  @Param("afterId") Long afterId);
+
+    @Query("select coalesce(max(t.id), 0L) from Transaction t where t.account = :account")
+    Long findLastIdByAccount(@Param("account") Account account);
+
+    /**
+     * 해당 시점 이전의 마지막 성공한 거래 (account_id, transactedAt 인덱스를 역순으로 읽는다.)
+     */
+    Optional<Transaction> findFirstByAccountAndTransactionResultTypeAndTransactedAtLessThanEqualOrderByTransactedAtDescIdDesc(
+            Account account, TransactionResultType transactionResultType, LocalDateTime transactedAt);
+
+    /**
+     * 해당 시점 이후의 첫 성공한 거래
+     */
+    Optional<Transaction> findFirstByAccountAndTransactionResultTypeAndTransactedAtGreaterThanOrderByTransactedAtAscIdAsc(
+            Account account, TransactionResultType transactionResultType, LocalDateTime transactedAt);
+
+    /**
+     * 계좌의 최신 거래부터 (account_id, transactedAt 인덱스를 역순으로 읽는다.)
+     */
+    @Query("select t from Transaction t where t.account = :account " + PAGE_FILTER)
+    List<Transaction> findPage(@Param("account") Account account,
+                               @Param("transactionType") TransactionType transactionType,
+                               @Param("transactionResultType") TransactionResultType transactionResultType,
+                               Pageable pageable);
+
+    /**
+     * cursor 의 거래 다음부터
+     * 거래일시 조건으로 인덱스의 읽기 시작 위치를 정하므로 얼마나 뒤의 페이지든 페이지 크기만큼만 읽는다.
+     */
+    @Query("select t from Transaction t where t.account = :account " +
+            "and t.transactedAt <= :transactedAt " +
+            "and (t.transactedAt < :transactedAt or t.id < :id) " + PAGE_FILTER)
+    List<Transaction> findPageAfter(@Param("account") Account account,
+                                    @Param("transactedAt") LocalDateTime transactedAt,
+                                    @Param("id") Long id,
+                                    @Param("transactionType") TransactionType transactionType,
+                                    @Param("transactionResultType") TransactionResultType transactionResultType,
+                                    Pageable pageable);
+
+    /**
+     * 기간 안의 거래를 한 번에 fetch size 만큼씩 읽어온다. (트랜잭션 안에서 닫을 때까지 사용한다.)
+     * 내보내기만 하므로 변경 감지용 스냅샷을 남기지 않는다.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select t from Transaction t where t.account = :account " +
+            "and t.transactedAt >= :from and t.transactedAt < :to " +
+            "order by t.transactedAt, t.id")
+    Stream<Transaction> streamStatement(@Param("account") Account account,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to);
+
+    @Query("select new com.example.accountsystem.dto.TransactionDto(" +
+            "a.accountNumber, t.transactionType, t.transactionResultType, t.amount, " +
+            "t.balanceSnapshot, t.transactionId, t.transactedAt) " +
+            "from Transaction t join t.account a where t.transactionId = :transactionId")
+    Optional<TransactionDto> findDtoByTransactionId(@Param("transactionId") String transactionId);
 }
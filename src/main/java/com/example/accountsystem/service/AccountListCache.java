@@ -0,0 +1,147 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.domain.Account;
+import com.example.accountsystem.domain.AccountChangedEvent;
+import com.example.accountsystem.dto.AccountDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * 사용자별 계좌 목록 캐시 (GET /account)
+ * 계좌가 바뀌면 커밋된 뒤에 이 서버의 캐시를 바로 고치고(write-through),
+ * 다른 서버에는 Redis topic 으로 알려 해당 사용자의 목록을 지우게 한다.
+ * 계좌 수로 추정한 크기의 합이 maximum-weight 를 넘으면 오래 쓰지 않은 목록부터 지운다.
+ * 적중률은 cache.gets{cache=accountList} 지표로 확인한다.
+ */
+@Slf4j
+@Component
+public class AccountListCache {
+    public static final String NAME = "accountList";
+
+    private static final String TOPIC = "account-list-cache-invalidation";
+    private static final int LIST_WEIGHT = 64; // 목록 하나의 대략적인 크기 (byte)
+    private static final int ACCOUNT_WEIGHT = 200; // 계좌 한 건의 대략적인 크기 (byte)
+
+    private final Cache<Long, List<AccountDto>> cache;
+    private final RedissonClient redissonClient;
+    private final String instanceId = UUID.randomUUID().toString(); // 자신이 보낸 알림은 무시한다.
+
+    private RTopic topic;
+    private int listenerId;
+
+    public AccountListCache(
+            @Value("${account.cache.account-list.maximum-weight:67108864}") long maximumWeight,
+            MeterRegistry meterRegistry,
+            @Nullable RedissonClient redissonClient) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((Long userId, List<AccountDto> accounts) ->
+                        LIST_WEIGHT + ACCOUNT_WEIGHT * accounts.size())
+                .recordStats()
+                .build();
+        this.redissonClient = redissonClient;
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        if (redissonClient == null) { // Redis 를 쓰지 않는 단일 서버
+            return;
+        }
+        topic = redissonClient.getTopic(TOPIC, StringCodec.INSTANCE);
+        listenerId = topic.addListener(String.class, (channel, message) -> {
+            String[] parts = message.split(":");
+            if (!instanceId.equals(parts[0])) {
+                cache.invalidate(Long.valueOf(parts[1]));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (topic == null) {
+            return;
+        }
+        topic.removeListener(listenerId);
+    }
+
+    /**
+     * 캐시에 없으면 loader 로 읽어 담는다.
+     * 읽는 동안 같은 사용자에 대한 변경은 읽기가 끝난 뒤에 반영된다.
+     */
+    public List<AccountDto> get(Long userId, Function<Long, List<AccountDto>> loader) {
+        return cache.get(userId, key -> Collections.unmodifiableList(loader.apply(key)));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAccountChanged(AccountChangedEvent event) {
+        Account account = event.getAccount();
+        Long userId = account.getAccountUser().getId();
+
+        if (event.isStale()) {
+            cache.invalidate(userId);
+        } else {
+            AccountDto changed = AccountDto.fromEntity(account);
+            cache.asMap().computeIfPresent(userId, (key, accounts) -> merge(accounts, changed));
+        }
+        publish(userId);
+    }
+
+    private void publish(Long userId) {
+        if (topic == null) {
+            return;
+        }
+        try {
+            topic.publish(instanceId + ":" + userId);
+        } catch (RuntimeException e) {
+            // 알림을 받지 못한 서버는 다음 변경이나 캐시에서 밀려날 때까지 이전 목록을 보여준다.
+            log.error("Failed to publish account list cache invalidation. userId : {}", userId, e);
+            cache.invalidate(userId);
+        }
+    }
+
+    /**
+     * 커밋 순서와 처리 순서가 다를 수 있으므로 버전이 더 높은 값만 반영한다.
+     */
+    private static List<AccountDto> merge(List<AccountDto> accounts, AccountDto changed) {
+        List<AccountDto> merged = new ArrayList<>(accounts.size() + 1);
+        boolean found = false;
+        for (AccountDto account : accounts) {
+            if (Objects.equals(account.getAccountNumber(), changed.getAccountNumber())) {
+                found = true;
+                merged.add(isNewer(changed, account) ? changed : account);
+            } else {
+                merged.add(account);
+            }
+        }
+        if (!found) {
+            merged.add(changed); // 새로 만든 계좌
+        }
+        return Collections.unmodifiableList(merged);
+    }
+
+    private static boolean isNewer(AccountDto changed, AccountDto cached) {
+        return cached.getVersion() == null
+                || (changed.getVersion() != null && changed.getVersion() > cached.getVersion());
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.accountsystem.service;
+
+/**
+ * 계좌 lock 구현체
+ * account.lock.provider 설정으로 구현체를 선택한다.
+ * 1. redis : Redisson RLock (기본값)
+ * 2. in-process : 서버 메모리의 lock (단일 서버용)
+ * 3. database : 계좌 row 에 대한 SELECT ... FOR UPDATE
+ */
+public interface AccountLockProvider {
+    /**
+     * lock 을 취득하지 못하면 ACCOUNT_TRANSACTION_LOCK 예외를 던진다.
+     */
+    void lock(String accountNumber);
+
+    void unlock(String accountNumber);
+}
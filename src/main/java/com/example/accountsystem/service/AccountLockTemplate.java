@@ -0,0 +1,62 @@
+package com.example.accountsystem.service;
+
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 계좌 lock 을 잡고 실행한다. (@AccountLock 과 잔액 사용 묶음 처리가 함께 쓴다.)
+ * 같은 서버의 요청끼리는 로컬 lock 에서 대기하고, 취득한 요청만 계좌 lock 을 시도한다.
+ * 대기 시간과 실패는 로컬 lock 과 계좌 lock 을 합쳐서 LockMetrics 와 HotAccountDetector 에 기록한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountLockTemplate {
+    private final StripedLockService stripedLockService;
+    private final AccountLockProvider accountLockProvider;
+    private final LockMetrics lockMetrics;
+    private final HotAccountDetector hotAccountDetector;
+
+    @FunctionalInterface
+    public interface Action<T, E extends Throwable> {
+        T run() throws E;
+    }
+
+    public <T, E extends Throwable> T execute(String accountNumber, String endpoint,
+                                              Action<T, E> action) throws E {
+        Timer.Sample wait = lockMetrics.start();
+        long waitStartedAt = System.nanoTime();
+        try {
+            stripedLockService.lock(accountNumber);
+        } catch (RuntimeException e) {
+            lockMetrics.failed(wait, endpoint);
+            recordAttempt(accountNumber, waitStartedAt, false);
+            throw e;
+        }
+        try {
+            // lock 취득 시도
+            try {
+                accountLockProvider.lock(accountNumber);
+            } catch (RuntimeException e) {
+                lockMetrics.failed(wait, endpoint);
+                recordAttempt(accountNumber, waitStartedAt, false);
+                throw e;
+            }
+            Timer.Sample hold = lockMetrics.acquired(wait, endpoint);
+            recordAttempt(accountNumber, waitStartedAt, true);
+            try {
+                return action.run();
+            } finally {
+                // lock 해제
+                accountLockProvider.unlock(accountNumber);
+                lockMetrics.released(hold, endpoint);
+            }
+        } finally {
+            stripedLockService.unlock(accountNumber);
+        }
+    }
+
+    private void recordAttempt(String accountNumber, long waitStartedAt, boolean acquired) {
+        hotAccountDetector.record(accountNumber, System.nanoTime() - waitStartedAt, acquired);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.repository.AccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 계좌번호 발급기 (hi/lo)
+ * DB 시퀀스에서 블록 번호(hi)를 받아 blockSize 개의 계좌번호를 서버 메모리에 확보해두고,
+ * 블록 안의 번호(lo)는 lock 없이 나눠준다. 블록을 다 쓰면 다음 블록 번호를 받아온다.
+ * 서버마다 다른 블록을 쓰므로 동시에 생성해도 번호가 겹치지 않는다.
+ * 서버가 재시작되면 쓰지 않은 블록의 나머지 번호는 건너뛴다.
+ */
+@Slf4j
+@Component
+public class AccountNumberAllocator {
+    private static final long FIRST_ACCOUNT_NUMBER = 1000000000L;
+
+    private final AccountRepository accountRepository;
+    private final int blockSize;
+
+    private volatile Block block = new Block(0L, 0L);
+
+    public AccountNumberAllocator(
+            AccountRepository accountRepository,
+            @Value("${account.number.block-size:100}") int blockSize) {
+        this.accountRepository = accountRepository;
+        this.blockSize = blockSize;
+    }
+
+    public String allocate() {
+        while (true) {
+            Block current = block;
+            long accountNumber = current.next.getAndIncrement();
+            if (accountNumber < current.end) {
+                return String.valueOf(accountNumber);
+            }
+            refill(current);
+        }
+    }
+
+    private synchronized void refill(Block exhausted) {
+        if (block != exhausted) {
+            return; // 다른 스레드가 이미 새 블록을 받아왔다.
+        }
+
+        long hi = accountRepository.nextAccountNumberBlock();
+        long start = FIRST_ACCOUNT_NUMBER + hi * blockSize;
+        log.debug("Allocated account number block : {} ~ {}", start, start + blockSize - 1);
+        block = new Block(start, start + blockSize);
+    }
+
+    private static class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
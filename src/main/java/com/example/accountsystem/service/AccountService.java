@@ -1,31 +1,45 @@
 package com.example.accountsystem.service;
 
 import com.example.accountsystem.domain.Account;
+import com.example.accountsystem.domain.AccountChangedEvent;
 import com.example.accountsystem.domain.AccountUser;
+import com.example.accountsystem.domain.Transaction;
 import com.example.accountsystem.dto.AccountDto;
+import com.example.accountsystem.dto.BalanceDto;
 import com.example.accountsystem.exception.AccountException;
 import com.example.accountsystem.repository.AccountRepository;
 import com.example.accountsystem.repository.AccountUserRepository;
+import com.example.accountsystem.repository.TransactionRepository;
 import com.example.accountsystem.type.AccountStatus;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
 import static com.example.accountsystem.type.AccountStatus.IN_USE;
 import static com.example.accountsystem.type.AccountStatus.UNREGISTERED;
 import static com.example.accountsystem.type.ErrorCode.*;
+import static com.example.accountsystem.type.TransactionResultType.S;
+import static com.example.accountsystem.type.TransactionType.USE;
 
 @Service
 @RequiredArgsConstructor
 public class AccountService {
     private final AccountRepository accountRepository;
     private final AccountUserRepository accountUserRepository;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final AccountListCache accountListCache;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final RedisBalanceService redisBalanceService;
+    private final LedgerBalanceService ledgerBalanceService;
+    private final TransactionRepository transactionRepository;
 
     /**
      * 사용자가 있는지 조회
@@ -38,19 +52,18 @@ public class AccountService {
 
         validateCreateAccount(accountUser);
 
-        String newAccountNumber = accountRepository.findFirstByOrderByIdDesc() // 가장 최근에 생성된 account를 가져온다.
-                .map(account -> (Integer.parseInt(account.getAccountNumber())) + 1 + "") // 문자열으로 변환
-                .orElse("1000000000"); // account가 하나도 없는 경우(처음 생성)
-
-        return AccountDto.fromEntity(
-                accountRepository.save(Account.builder()
-                        .accountUser(accountUser)
-                        .accountNumber(newAccountNumber)
-                        .accountStatus(IN_USE)
-                        .balance(initialBalance)
-                        .registeredAt(LocalDateTime.now())
-                        .build())
-        );
+        String newAccountNumber = accountNumberAllocator.allocate();
+
+        Account account = accountRepository.save(Account.builder()
+                .accountUser(accountUser)
+                .accountNumber(newAccountNumber)
+                .accountStatus(IN_USE)
+                .balance(initialBalance)
+                .registeredAt(LocalDateTime.now())
+                .build());
+        applicationEventPublisher.publishEvent(AccountChangedEvent.changed(account));
+
+        return AccountDto.fromEntity(account);
     }
 
     private void validateCreateAccount(AccountUser accountUser) {
@@ -64,7 +77,7 @@ public class AccountService {
         if (id < 0) {
             throw new RuntimeException("Minus");
         }
-        return accountRepository.findById(id).get();
+        return accountRepository.findWithAccountUserById(id).get();
     }
 
     @Transactional
@@ -75,11 +88,16 @@ public class AccountService {
                 .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
 
         validateDeleteAccount(accountUser, account);
+        if (redisBalanceService.isEnabled()) {
+            // DB 의 잔액은 늦게 반영되므로 Redis 의 잔액을 확인하고 더 이상 거래할 수 없게 한다.
+            redisBalanceService.unregister(accountNumber);
+        }
 
         account.setAccountStatus(UNREGISTERED);
         account.setUnRegisteredAt(LocalDateTime.now());
 
         accountRepository.save(account); // for test <- 원래는 없어도되는 코드
+        applicationEventPublisher.publishEvent(AccountChangedEvent.changed(account));
 
         return AccountDto.fromEntity(account);
     }
@@ -93,20 +111,102 @@ public class AccountService {
             throw new AccountException(ACCOUNT_ALREADY_UNREGISTERED);
         }
 
-        if (account.getBalance() > 0) {
+        if (!redisBalanceService.isEnabled() && getBalance(account) > 0) {
             throw new AccountException(BALANCE_NOT_EMPTY);
         }
     }
 
+    /**
+     * 해당 시점의 잔액
+     * 그 시점 이전의 마지막 성공한 거래에 남긴 거래 후 잔액이고, 거래가 없었다면 계좌를 만들 때의 잔액이다.
+     * Redis 나 저널을 거치는 거래는 DB 에 기록된 뒤에 반영된다.
+     */
     @Transactional
+    public BalanceDto getBalanceAt(String accountNumber, LocalDateTime at) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+
+        if (account.getRegisteredAt() != null && account.getRegisteredAt().isAfter(at)) {
+            throw new AccountException(ACCOUNT_NOT_REGISTERED_YET);
+        }
+
+        return transactionRepository
+                .findFirstByAccountAndTransactionResultTypeAndTransactedAtLessThanEqualOrderByTransactedAtDescIdDesc(
+                        account, S, at)
+                .map(transaction -> BalanceDto.builder()
+                        .accountNumber(accountNumber)
+                        .balance(transaction.getBalanceSnapshot())
+                        .at(at)
+                        .transactionId(transaction.getTransactionId())
+                        .transactedAt(transaction.getTransactedAt())
+                        .build())
+                .orElseGet(() -> BalanceDto.builder()
+                        .accountNumber(accountNumber)
+                        .balance(getInitialBalance(account, at))
+                        .at(at)
+                        .build());
+    }
+
+    /**
+     * 계좌를 만들 때의 잔액은 따로 남지 않으므로 그 이후의 첫 거래를 되돌려서 구한다.
+     * 거래가 한 번도 없었다면 지금의 잔액이다.
+     */
+    private Long getInitialBalance(Account account, LocalDateTime at) {
+        return transactionRepository
+                .findFirstByAccountAndTransactionResultTypeAndTransactedAtGreaterThanOrderByTransactedAtAscIdAsc(
+                        account, S, at)
+                .map(this::getBalanceBefore)
+                .orElseGet(() -> getBalance(account));
+    }
+
+    private Long getBalanceBefore(Transaction transaction) {
+        return transaction.getTransactionType() == USE
+                ? transaction.getBalanceSnapshot() + transaction.getAmount()
+                : transaction.getBalanceSnapshot() - transaction.getAmount();
+    }
+
+    private Long getBalance(Account account) {
+        return ledgerBalanceService.isEnabled()
+                ? ledgerBalanceService.getBalance(account).getBalance()
+                : account.getBalance();
+    }
+
+    /**
+     * 캐시에 있으면 DB 연결 없이 반환한다.
+     */
     public List<AccountDto> getAccountsByUserId(Long userId) {
-        AccountUser accountUser = getAccountUser(userId);
+        return accountListCache.get(userId, this::findAccountsByUserId);
+    }
 
-        List<Account> accounts = accountRepository.findByAccountUser(accountUser);
+    private List<AccountDto> findAccountsByUserId(Long userId) {
+        List<AccountDto> accountDtos = accountRepository.findDtosByUserId(userId);
+        if (accountDtos.isEmpty()) {
+            throw new AccountException(USER_NOT_FOUND);
+        }
 
-        return accounts.stream()
-                .map(AccountDto::fromEntity)
+        List<AccountDto> accounts = accountDtos.stream()
+                .filter(accountDto -> accountDto.getAccountNumber() != null) // 계좌가 없는 사용자
                 .collect(Collectors.toList());
+        if (ledgerBalanceService.isEnabled() && !accounts.isEmpty()) {
+            applyLedgerBalances(accounts);
+        }
+        return accounts;
+    }
+
+    /**
+     * 원장 방식에서는 잔액 컬럼이 최신이 아니므로 거래 내역으로 계산한 잔액으로 바꾼다.
+     */
+    private void applyLedgerBalances(List<AccountDto> accountDtos) {
+        Map<String, Long> balances = accountRepository.findByAccountNumberIn(
+                        accountDtos.stream()
+                                .map(AccountDto::getAccountNumber)
+                                .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Account::getAccountNumber,
+                        account -> ledgerBalanceService.getBalance(account).getBalance()));
+
+        accountDtos.forEach(accountDto ->
+                accountDto.setBalance(balances.get(accountDto.getAccountNumber())));
     }
 
     private AccountUser getAccountUser(Long userId) {
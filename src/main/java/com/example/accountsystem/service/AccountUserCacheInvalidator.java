@@ -0,0 +1,95 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.config.CacheConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.LongCodec;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * 사용자 캐시 무효화
+ * 사용자가 바뀌면 Redis topic 으로 알리고, 모든 서버가 자신의 로컬 캐시에서 지운다.
+ * Redis 를 쓰지 않는 단일 서버 설정에서는 자신의 캐시만 지운다.
+ */
+@Slf4j
+@Component
+public class AccountUserCacheInvalidator {
+    private static final String TOPIC = "account-user-cache-invalidation";
+
+    private final RedissonClient redissonClient;
+    private final CacheManager cacheManager;
+
+    private RTopic topic;
+    private int listenerId;
+
+    public AccountUserCacheInvalidator(@Nullable RedissonClient redissonClient,
+                                       CacheManager cacheManager) {
+        this.redissonClient = redissonClient;
+        this.cacheManager = cacheManager;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        if (redissonClient == null) {
+            return;
+        }
+        topic = redissonClient.getTopic(TOPIC, LongCodec.INSTANCE);
+        listenerId = topic.addListener(Long.class, (channel, userId) -> evict(userId));
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (topic == null) {
+            return;
+        }
+        topic.removeListener(listenerId);
+    }
+
+    /**
+     * 트랜잭션 안이면 커밋된 뒤에 알린다.
+     * 커밋 전에 알리면 다른 서버가 바뀌기 전 값을 다시 캐시할 수 있다.
+     */
+    public void invalidate(Long userId) {
+        evict(userId);
+        if (topic == null) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(userId);
+            }
+        });
+    }
+
+    private void publish(Long userId) {
+        try {
+            topic.publish(userId);
+        } catch (RuntimeException e) {
+            // 알리지 못한 서버의 캐시는 만료 시간이 지나면 지워진다.
+            log.error("Failed to publish account user cache invalidation. userId : {}", userId, e);
+        }
+    }
+
+    private void evict(Long userId) {
+        log.debug("Evict account user cache. userId : {}", userId);
+        Cache cache = cacheManager.getCache(CacheConfig.ACCOUNT_USER);
+        if (cache != null) {
+            cache.evict(userId);
+        }
+    }
+}
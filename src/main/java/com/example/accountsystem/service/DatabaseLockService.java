@@ -0,0 +1,62 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.exception.AccountException;
+import com.example.accountsystem.repository.AccountRepository;
+import com.example.accountsystem.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+/**
+ * 계좌 row 에 SELECT ... FOR UPDATE 를 걸어 lock 으로 사용한다.
+ * lock 을 잡은 트랜잭션은 unlock 까지 유지되고, 그 사이의 서비스 트랜잭션은 여기에 참여한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "account.lock.provider", havingValue = "database")
+public class DatabaseLockService implements AccountLockProvider {
+    private final PlatformTransactionManager transactionManager;
+    private final AccountRepository accountRepository;
+
+    private final ThreadLocal<TransactionStatus> lockTransaction = new ThreadLocal<>();
+
+    @Override
+    public void lock(String accountNumber) {
+        log.debug("Trying row lock for accountNumber : {}", accountNumber);
+        TransactionStatus status =
+                transactionManager.getTransaction(new DefaultTransactionDefinition());
+
+        try {
+            accountRepository.findByAccountNumberForUpdate(accountNumber);
+        } catch (PessimisticLockingFailureException e) {
+            log.error("======Lock acquisition failed======");
+            transactionManager.rollback(status);
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        } catch (RuntimeException e) {
+            transactionManager.rollback(status);
+            throw e;
+        }
+
+        lockTransaction.set(status);
+    }
+
+    @Override
+    public void unlock(String accountNumber) {
+        log.debug("Unlock for accountNumber : {}", accountNumber);
+        TransactionStatus status = lockTransaction.get();
+        lockTransaction.remove();
+
+        // 서비스에서 예외가 발생해 rollback-only 가 된 경우 commit 하지 않는다.
+        if (status.isRollbackOnly()) {
+            transactionManager.rollback(status);
+        } else {
+            transactionManager.commit(status);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.config.FailedTransactionProperties;
+import com.example.accountsystem.dto.FailedTransaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 실패한 거래를 요청 스레드에서 바로 저장하지 않고 대기열에 쌓아두었다가
+ * 백그라운드 스레드에서 모아서 한 번에 기록한다.
+ * 요청 스레드는 계좌 lock 을 잡고 있으므로 대기열이 가득 찼거나 종료 중이면 기다리거나 직접 기록하지 않고
+ * 버린 뒤 account.failed-transaction.dropped 로 센다. 종료할 때는 남은 거래를 모두 기록한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FailedTransactionRecorder {
+    private final TransactionService transactionService;
+    private final FailedTransactionProperties failedTransactionProperties;
+    private final MeterRegistry meterRegistry;
+
+    // 종료할 때 기다리고 있는 writer 를 깨우기 위한 표시
+    private static final FailedTransaction STOP = FailedTransaction.of(null, null, null);
+
+    private BlockingQueue<FailedTransaction> queue;
+    private Thread writer;
+    private volatile boolean running;
+    private Counter dropped;
+
+    @PostConstruct
+    public void start() {
+        dropped = meterRegistry.counter("account.failed-transaction.dropped");
+        queue = new ArrayBlockingQueue<>(failedTransactionProperties.getCapacity());
+        running = true;
+        writer = new Thread(this::run, "failed-transaction-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        queue.offer(STOP); // 가득 차 있으면 writer 가 기다리지 않고 바로 꺼내간다.
+        writer.join(failedTransactionProperties.getFlushInterval().toMillis() * 2 + 1000L);
+
+        // writer 가 끝나는 사이에 들어온 거래
+        flush();
+    }
+
+    public void record(FailedTransaction failedTransaction) {
+        if (!running || !queue.offer(failedTransaction)) {
+            drop();
+            return;
+        }
+
+        // 넣는 사이에 종료가 시작됐으면 writer 와 stop() 이 이미 대기열을 비웠을 수 있다.
+        if (!running && queue.remove(failedTransaction)) {
+            drop();
+        }
+    }
+
+    private void drop() {
+        log.warn("Failed transaction queue is unavailable. Dropping failed transaction.");
+        dropped.increment();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                List<FailedTransaction> batch = poll();
+                if (!batch.isEmpty()) {
+                    save(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        flush();
+    }
+
+    /**
+     * 첫 거래가 들어온 뒤 flushInterval 동안, 또는 batchSize 만큼 찰 때까지 모은다.
+     */
+    private List<FailedTransaction> poll() throws InterruptedException {
+        int batchSize = failedTransactionProperties.getBatchSize();
+        long interval = failedTransactionProperties.getFlushInterval().toNanos();
+        List<FailedTransaction> batch = new ArrayList<>(batchSize);
+
+        FailedTransaction first = queue.poll(interval, TimeUnit.NANOSECONDS);
+        if (first == null || first == STOP) {
+            return batch;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + interval;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            if (batch.remove(STOP)) {
+                break;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+            FailedTransaction next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null || next == STOP) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void flush() {
+        List<FailedTransaction> batch = new ArrayList<>();
+        while (queue.drainTo(batch, failedTransactionProperties.getBatchSize()) > 0) {
+            batch.remove(STOP);
+            if (batch.isEmpty()) {
+                continue;
+            }
+            save(batch);
+            batch = new ArrayList<>();
+        }
+    }
+
+    private void save(List<FailedTransaction> failedTransactions) {
+        try {
+            transactionService.saveFailedTransactions(failedTransactions);
+        } catch (RuntimeException e) {
+            log.error("Failed to save failed transactions. count : {}",
+                    failedTransactions.size(), e);
+        }
+    }
+}
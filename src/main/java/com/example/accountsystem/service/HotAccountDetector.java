@@ -0,0 +1,124 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.config.HotAccountProperties;
+import com.example.accountsystem.dto.HotAccount;
+import com.example.accountsystem.exception.AccountException;
+import com.example.accountsystem.type.ErrorCode;
+import com.example.accountsystem.type.HotAccountMetric;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * lock 경합이 심한 계좌를 찾는다.
+ * 시간을 일정한 구간(bucket)으로 나누고, 구간마다 기준별로 Space-Saving 요약을 둔다.
+ * 요청 스레드끼리 같은 요약을 두고 경합하지 않도록 구간을 스레드별 stripe 로 나눠서 기록하고,
+ * 조회할 때 최근 구간들의 모든 stripe 를 합쳐서 상위 계좌를 고른다.
+ * 오래된 구간은 다시 쓰이므로 메모리는 계좌 수와 관계없이 일정하다.
+ */
+@Component
+public class HotAccountDetector {
+    private final Bucket[][] buckets; // [구간][stripe]
+    private final int stripeMask;
+    private final long bucketMillis;
+    private final LongSupplier currentTimeMillis;
+
+    @Autowired
+    public HotAccountDetector(HotAccountProperties properties) {
+        this(properties, System::currentTimeMillis);
+    }
+
+    HotAccountDetector(HotAccountProperties properties, LongSupplier currentTimeMillis) {
+        this.bucketMillis = properties.getBucketDuration().toMillis();
+        int stripes = Integer.highestOneBit(Math.max(1, properties.getStripes() - 1)) << 1; // 2의 거듭제곱으로 맞춘다.
+        this.stripeMask = stripes - 1;
+        this.buckets = new Bucket[properties.getBuckets()][stripes];
+        for (Bucket[] stripedBuckets : buckets) {
+            for (int i = 0; i < stripes; i++) {
+                stripedBuckets[i] = new Bucket(properties.getCapacity());
+            }
+        }
+        this.currentTimeMillis = currentTimeMillis;
+    }
+
+    /**
+     * lock 시도 한 번을 기록한다. 같은 stripe 를 쓰는 스레드끼리만 경합한다.
+     */
+    public void record(String accountNumber, long waitNanos, boolean acquired) {
+        long epoch = currentTimeMillis.getAsLong() / bucketMillis;
+        Bucket bucket = buckets[(int) (epoch % buckets.length)]
+                [(int) Thread.currentThread().getId() & stripeMask];
+
+        synchronized (bucket) {
+            bucket.rotateTo(epoch);
+            bucket.summaries.get(HotAccountMetric.ATTEMPTS).add(accountNumber, 1);
+            bucket.summaries.get(HotAccountMetric.WAIT_TIME)
+                    .add(accountNumber, TimeUnit.NANOSECONDS.toMicros(waitNanos));
+            if (!acquired) {
+                bucket.summaries.get(HotAccountMetric.FAILURES).add(accountNumber, 1);
+            }
+        }
+    }
+
+    /**
+     * 최근 window 동안 기준 값이 큰 계좌를 limit 개까지 돌려준다. (구간 단위로 올림)
+     */
+    public List<HotAccount> getHotAccounts(Duration window, HotAccountMetric metric, int limit) {
+        int windowBuckets = (int) ((window.toMillis() + bucketMillis - 1) / bucketMillis);
+        if (window.isNegative() || window.isZero() || windowBuckets > buckets.length || limit < 1) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+
+        long epoch = currentTimeMillis.getAsLong() / bucketMillis;
+        Map<String, long[]> totals = new HashMap<>();
+        for (long e = epoch; e > epoch - windowBuckets; e--) {
+            for (Bucket bucket : buckets[(int) (e % buckets.length)]) {
+                synchronized (bucket) {
+                    if (bucket.epoch == e) {
+                        bucket.summaries.get(metric).addTo(totals);
+                    }
+                }
+            }
+        }
+
+        return totals.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, long[]> entry) -> entry.getValue()[0]).reversed())
+                .limit(limit)
+                .map(entry -> HotAccount.builder()
+                        .accountNumber(entry.getKey())
+                        .value(entry.getValue()[0])
+                        .maxError(entry.getValue()[1])
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static class Bucket {
+        private final Map<HotAccountMetric, SpaceSavingSummary> summaries =
+                new EnumMap<>(HotAccountMetric.class);
+        private long epoch = -1;
+
+        private Bucket(int capacity) {
+            for (HotAccountMetric metric : HotAccountMetric.values()) {
+                summaries.put(metric, new SpaceSavingSummary(capacity));
+            }
+        }
+
+        // 이전 바퀴의 구간이면 비우고 새 구간으로 쓴다.
+        private void rotateTo(long epoch) {
+            if (this.epoch != epoch) {
+                summaries.values().forEach(SpaceSavingSummary::clear);
+                this.epoch = epoch;
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.exception.AccountException;
+import com.example.accountsystem.type.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 단일 서버 배포용 lock
+ * 계좌번호별 lock 을 메모리에 두고, 사용하는 스레드가 없으면 제거한다.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "account.lock.provider", havingValue = "in-process")
+public class InProcessLockService implements AccountLockProvider {
+    private final ConcurrentHashMap<String, LockEntry> locks = new ConcurrentHashMap<>();
+
+    @Override
+    public void lock(String accountNumber) {
+        log.debug("Trying in-process lock for accountNumber : {}", accountNumber);
+        LockEntry entry = acquireEntry(accountNumber);
+
+        try {
+            if (!entry.lock.tryLock(1, TimeUnit.SECONDS)) {
+                log.error("======Lock acquisition failed======");
+                releaseEntry(accountNumber);
+                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            releaseEntry(accountNumber);
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+
+    @Override
+    public void unlock(String accountNumber) {
+        log.debug("Unlock for accountNumber : {}", accountNumber);
+        locks.get(accountNumber).lock.unlock();
+        releaseEntry(accountNumber);
+    }
+
+    int size() {
+        return locks.size();
+    }
+
+    // 참조 수는 compute 안에서만 바꾸므로 별도의 동기화가 필요 없다.
+    private LockEntry acquireEntry(String accountNumber) {
+        return locks.compute(accountNumber, (key, entry) -> {
+            LockEntry result = entry == null ? new LockEntry() : entry;
+            result.references++;
+            return result;
+        });
+    }
+
+    private void releaseEntry(String accountNumber) {
+        locks.computeIfPresent(accountNumber,
+                (key, entry) -> --entry.references == 0 ? null : entry);
+    }
+
+    private static class LockEntry {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int references;
+    }
+}
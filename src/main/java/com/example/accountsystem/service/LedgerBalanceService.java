@@ -0,0 +1,109 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.config.ConcurrencyProperties;
+import com.example.accountsystem.config.JournalProperties;
+import com.example.accountsystem.config.LedgerProperties;
+import com.example.accountsystem.domain.Account;
+import com.example.accountsystem.domain.AccountBalanceSnapshot;
+import com.example.accountsystem.domain.Transaction;
+import com.example.accountsystem.dto.LedgerBalance;
+import com.example.accountsystem.repository.AccountBalanceSnapshotRepository;
+import com.example.accountsystem.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+
+import static com.example.accountsystem.type.ConcurrencyMode.BATCHED;
+import static com.example.accountsystem.type.ConcurrencyMode.PESSIMISTIC;
+
+/**
+ * 거래 내역을 기준으로 잔액을 계산한다. (account.ledger.enabled=true)
+ * 잔액은 계좌의 마지막 스냅샷에 그 이후의 성공한 거래를 더한 값이고, 거래는 계좌의 잔액 컬럼을 바꾸지 않는다.
+ * 스냅샷 이후 거래가 snapshotInterval 만큼 쌓이면 새 스냅샷을 남겨서 읽는 거래 수를 제한한다.
+ * 거래 id 의 순서로 스냅샷 이후의 거래를 구분하므로 같은 계좌의 거래는 계좌 lock 안에서 기록한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LedgerBalanceService {
+    private final LedgerProperties ledgerProperties;
+    private final ConcurrencyProperties concurrencyProperties;
+    private final JournalProperties journalProperties;
+    private final TransactionRepository transactionRepository;
+    private final AccountBalanceSnapshotRepository accountBalanceSnapshotRepository;
+
+    @PostConstruct
+    public void validate() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        // 잔액 컬럼을 바꾸지 않으므로 계좌의 버전이나 조건부 UPDATE 로는 동시에 쓰는 것을 막을 수 없다.
+        if ((concurrencyProperties.getUse() != PESSIMISTIC && concurrencyProperties.getUse() != BATCHED)
+                || concurrencyProperties.getCancel() != PESSIMISTIC) {
+            throw new IllegalStateException(
+                    "account.ledger requires PESSIMISTIC or BATCHED use and PESSIMISTIC cancel");
+        }
+
+        // 아직 DB 에 기록되지 않은 거래는 잔액 계산에서 빠진다.
+        if (journalProperties.isEnabled()) {
+            throw new IllegalStateException("account.ledger cannot be combined with account.journal");
+        }
+    }
+
+    public boolean isEnabled() {
+        return ledgerProperties.isEnabled();
+    }
+
+    /**
+     * 조회용 잔액
+     * 스냅샷이 없는 계좌는 원장 방식으로 거래한 적이 없으므로 잔액 컬럼이 최신 잔액이다.
+     */
+    public LedgerBalance getBalance(Account account) {
+        return accountBalanceSnapshotRepository.findFirstByAccountOrderByLastTransactionIdDesc(account)
+                .map(snapshot -> getBalance(account, snapshot))
+                .orElseGet(() -> new LedgerBalance(account.getBalance(), 0L));
+    }
+
+    /**
+     * 거래할 때의 잔액 (계좌 lock 안에서 호출한다.)
+     * 스냅샷이 없으면 잔액 컬럼과 지금까지의 마지막 거래로 첫 스냅샷을 남긴다.
+     */
+    public LedgerBalance getBalanceForUpdate(Account account) {
+        return getBalance(account, accountBalanceSnapshotRepository
+                .findFirstByAccountOrderByLastTransactionIdDesc(account)
+                .orElseGet(() -> saveSnapshot(account, account.getBalance(),
+                        transactionRepository.findLastIdByAccount(account))));
+    }
+
+    /**
+     * 성공한 거래를 기록한 뒤 호출한다.
+     * 스냅샷을 남겼다면 이어서 거래할 때 쓸 수 있도록 쌓인 거래 수를 0 으로 돌려준다.
+     */
+    public LedgerBalance appended(Transaction transaction, LedgerBalance ledgerBalance) {
+        if (ledgerBalance.getEventCount() < ledgerProperties.getSnapshotInterval()) {
+            return ledgerBalance;
+        }
+
+        saveSnapshot(transaction.getAccount(), ledgerBalance.getBalance(), transaction.getId());
+        log.debug("Saved balance snapshot for accountNumber : {}, lastTransactionId : {}",
+                transaction.getAccount().getAccountNumber(), transaction.getId());
+        return new LedgerBalance(ledgerBalance.getBalance(), 0L);
+    }
+
+    private LedgerBalance getBalance(Account account, AccountBalanceSnapshot snapshot) {
+        LedgerBalance tail = transactionRepository.sumAmountsAfter(
+                account, snapshot.getLastTransactionId());
+        return new LedgerBalance(snapshot.getBalance() + tail.getBalance(), tail.getEventCount());
+    }
+
+    private AccountBalanceSnapshot saveSnapshot(Account account, Long balance, Long lastTransactionId) {
+        return accountBalanceSnapshotRepository.save(AccountBalanceSnapshot.builder()
+                .account(account)
+                .balance(balance)
+                .lastTransactionId(lastTransactionId)
+                .build());
+    }
+}
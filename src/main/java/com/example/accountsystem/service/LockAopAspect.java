@@ -1,6 +1,9 @@
 package com.example.accountsystem.service;
 
+import com.example.accountsystem.aop.AccountLock;
 import com.example.accountsystem.aop.AccountLockIdInterface;
+import com.example.accountsystem.config.ConcurrencyProperties;
+import com.example.accountsystem.type.ConcurrencyMode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -13,18 +16,23 @@ import org.springframework.stereotype.Component;
 @Slf4j
 @RequiredArgsConstructor
 public class LockAopAspect {
-    private final LockService lockService;
+    private final AccountLockTemplate accountLockTemplate;
+    private final ConcurrencyProperties concurrencyProperties;
+    private final LockMetrics lockMetrics;
 
-    @Around("@annotation(com.example.accountsystem.aop.AccountLock) && args(request)")
-    public Object aroundMethod(
-            ProceedingJoinPoint pjp, AccountLockIdInterface request) throws Throwable {
-        // lock 취득 시도
-        lockService.lock(request.getAccountNumber());
-        try {
+    @Around("@annotation(accountLock) && args(request)")
+    public Object aroundMethod(ProceedingJoinPoint pjp, AccountLock accountLock,
+                               AccountLockIdInterface request) throws Throwable {
+        ConcurrencyMode mode = concurrencyProperties.getMode(accountLock.type());
+        String endpoint = accountLock.type().name().toLowerCase();
+        if (mode == ConcurrencyMode.OPTIMISTIC) {
+            return OptimisticRetry.execute(concurrencyProperties.getOptimistic(),
+                    lockMetrics, endpoint, pjp::proceed);
+        }
+        if (mode != ConcurrencyMode.PESSIMISTIC) {
             return pjp.proceed();
-        } finally {
-            // lock 해제
-            lockService.unlock(request.getAccountNumber());
         }
+
+        return accountLockTemplate.execute(request.getAccountNumber(), endpoint, pjp::proceed);
     }
 }
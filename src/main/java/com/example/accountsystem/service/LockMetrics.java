@@ -0,0 +1,65 @@
+package com.example.accountsystem.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * 계좌 lock 지표 (/actuator/prometheus)
+ * 1. account.lock.wait : lock 을 얻기까지 기다린 시간 (실패한 경우 포함)
+ * 2. account.lock.hold : lock 을 잡고 있던 시간
+ * 3. account.lock.failures : lock 을 얻지 못해 ACCOUNT_TRANSACTION_LOCK 으로 끝난 요청 수
+ * 4. account.lock.errors : lock 저장소(Redis) 오류 수
+ * endpoint 태그는 @AccountLock 의 거래 종류(use : /transaction/use, cancel : /transaction/cancel)이다.
+ */
+@Component
+public class LockMetrics {
+    private final MeterRegistry meterRegistry;
+
+    public LockMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    /**
+     * 기다린 시간을 기록하고, 이어서 lock 을 잡고 있는 시간을 잰다.
+     */
+    public Timer.Sample acquired(Timer.Sample wait, String endpoint) {
+        wait.stop(timer("account.lock.wait", endpoint));
+        return start();
+    }
+
+    public void released(Timer.Sample hold, String endpoint) {
+        hold.stop(timer("account.lock.hold", endpoint));
+    }
+
+    public void failed(Timer.Sample wait, String endpoint) {
+        wait.stop(timer("account.lock.wait", endpoint));
+        failed(endpoint);
+    }
+
+    public void failed(String endpoint) {
+        Counter.builder("account.lock.failures")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void error(String provider) {
+        Counter.builder("account.lock.errors")
+                .tag("provider", provider)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // 이미 등록된 지표는 registry 가 같은 객체를 돌려준다.
+    private Timer timer(String name, String endpoint) {
+        return Timer.builder(name)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+}
@@ -6,6 +6,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import java.util.concurrent.TimeUnit;
@@ -13,8 +14,12 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class LockService {
+@ConditionalOnProperty(name = "account.lock.provider", havingValue = "redis", matchIfMissing = true)
+public class LockService implements AccountLockProvider {
     private final RedissonClient redissonClient;
+    private final LockMetrics lockMetrics;
+
+    @Override
     public void lock(String accountNumber) {
         RLock lock = redissonClient.getLock(getLockKey(accountNumber));
         log.debug("Trying lock for accountNumber : {}", accountNumber);
@@ -29,9 +34,11 @@ public class LockService {
             throw e;
         } catch (Exception e) {
             log.error("Redis lock failed", e);
+            lockMetrics.error("redis");
         }
     }
 
+    @Override
     public void unlock(String accountNumber) {
         log.debug("Unlock for accountNumber : {}", accountNumber);
         redissonClient.getLock(getLockKey(accountNumber)).unlock();
@@ -0,0 +1,60 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.config.ConcurrencyProperties;
+import com.example.accountsystem.exception.AccountException;
+import com.example.accountsystem.type.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import javax.persistence.OptimisticLockException;
+
+/**
+ * 버전 충돌이 나면 설정된 횟수까지 간격을 늘려가며 다시 실행한다. (account.concurrency.*=optimistic)
+ * 모두 충돌하면 lock 취득 실패와 같은 ACCOUNT_TRANSACTION_LOCK 으로 끝낸다.
+ * 트랜잭션 안에서 EntityManager.flush() 로 드러난 충돌은 Spring 예외로 바뀌지 않으므로 JPA 예외도 충돌로 본다.
+ */
+@Slf4j
+final class OptimisticRetry {
+    private OptimisticRetry() {
+    }
+
+    @FunctionalInterface
+    interface Attempt<T, E extends Throwable> {
+        T run() throws E;
+    }
+
+    static <T, E extends Throwable> T execute(ConcurrencyProperties.Optimistic retry,
+                                              LockMetrics lockMetrics, String endpoint,
+                                              Attempt<T, E> attempt) throws E {
+        long backoff = retry.getBackoff().toMillis();
+
+        for (int count = 1; ; count++) {
+            try {
+                return attempt.run();
+            } catch (RuntimeException e) {
+                if (!isVersionConflict(e)) {
+                    throw e;
+                }
+                if (count >= retry.getMaxAttempts()) {
+                    log.error("======Optimistic lock retry exhausted======");
+                    lockMetrics.failed(endpoint);
+                    throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+                }
+                log.debug("Optimistic lock conflict, retry : {}", count);
+
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+                }
+                backoff = Math.min(backoff * 2, retry.getMaxBackoff().toMillis());
+            }
+        }
+    }
+
+    static boolean isVersionConflict(RuntimeException e) {
+        return e instanceof OptimisticLockingFailureException
+                || e instanceof OptimisticLockException;
+    }
+}
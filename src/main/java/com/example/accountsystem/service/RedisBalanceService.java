@@ -0,0 +1,347 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.config.ConcurrencyProperties;
+import com.example.accountsystem.domain.Account;
+import com.example.accountsystem.dto.LedgerEntry;
+import com.example.accountsystem.dto.TransactionDto;
+import com.example.accountsystem.exception.AccountException;
+import com.example.accountsystem.repository.AccountRepository;
+import com.example.accountsystem.repository.AccountUserRepository;
+import com.example.accountsystem.repository.TransactionRepository;
+import com.example.accountsystem.type.AccountStatus;
+import com.example.accountsystem.type.ErrorCode;
+import com.example.accountsystem.type.TransactionType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static com.example.accountsystem.type.TransactionResultType.S;
+import static com.example.accountsystem.type.TransactionType.CANCEL;
+import static com.example.accountsystem.type.TransactionType.USE;
+
+/**
+ * Redis 의 잔액을 기준으로 거래를 처리한다. (account.concurrency.use=redis, cancel=redis)
+ * 잔액 확인, 변경, 거래 기록(ledger) 추가를 Lua 스크립트 하나로 처리하므로 계좌 lock 과 DB 트랜잭션 없이 원자적이다.
+ * DB 의 잔액과 거래 내역은 RedisLedgerWriter 가 나중에 모아서 기록하므로,
+ * 계좌 조회나 거래 확인은 기록될 때까지 (보통 flush-interval 이내) 이전 값을 보여줄 수 있다.
+ * 잔액은 처음 거래할 때 DB 에서 읽어 Redis 에 올린다.
+ * 스크립트가 여러 key 를 쓰므로 Redis 한 대(또는 같은 slot)에서만 동작한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RedisBalanceService {
+    private static final String BALANCE_KEY = "ACBAL:"; // 계좌 잔액 (balance, status, userId, version)
+    private static final String PENDING_TRANSACTION_KEY = "ACTX:"; // DB 에 기록되기 전의 거래 (취소할 때 조회)
+    private static final String LEDGER_KEY = "ACLEDGER"; // DB 에 기록할 거래 목록
+
+    private static final String OK = "OK";
+    private static final String NOT_LOADED = "NOT_LOADED";
+
+    private static final String LOAD_SCRIPT =
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+            "redis.call('HMSET', KEYS[1], 'balance', ARGV[1], 'status', ARGV[2], " +
+            "'userId', ARGV[3], 'version', '0') " +
+            "return 1";
+
+    // ARGV : userId, amount, transactionId, transactedAt, accountNumber
+    private static final String USE_SCRIPT =
+            "local account = redis.call('HMGET', KEYS[1], 'balance', 'status', 'userId') " +
+            "if not account[1] then return {'" + NOT_LOADED + "'} end " +
+            "if account[3] ~= ARGV[1] then return {'USER_ACCOUNT_UN_MATCH'} end " +
+            "if account[2] ~= 'IN_USE' then return {'ACCOUNT_ALREADY_UNREGISTERED'} end " +
+            "if tonumber(account[1]) < tonumber(ARGV[2]) then return {'AMOUNT_EXCEED_BALANCE'} end " +
+            "local balance = redis.call('HINCRBY', KEYS[1], 'balance', '-' .. ARGV[2]) " +
+            appendLedger("USE") +
+            "return {'" + OK + "', string.format('%d', balance)}";
+
+    // ARGV : amount, transactionId, transactedAt, accountNumber (검증은 호출하기 전에 끝낸다.)
+    private static final String CANCEL_SCRIPT =
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return {'" + NOT_LOADED + "'} end " +
+            "local balance = redis.call('HINCRBY', KEYS[1], 'balance', ARGV[1]) " +
+            appendLedger("CANCEL") +
+            "return {'" + OK + "', string.format('%d', balance)}";
+
+    private static final String UNREGISTER_SCRIPT =
+            "local balance = redis.call('HGET', KEYS[1], 'balance') " +
+            "if not balance then return '" + NOT_LOADED + "' end " +
+            "if tonumber(balance) > 0 then return 'BALANCE_NOT_EMPTY' end " +
+            "redis.call('HSET', KEYS[1], 'status', 'UNREGISTERED') " +
+            "return '" + OK + "'";
+
+    // 확인한 뒤로 거래가 없었을 때만 바꾼다.
+    private static final String OVERWRITE_SCRIPT =
+            "if redis.call('HGET', KEYS[1], 'version') ~= ARGV[1] then return 0 end " +
+            "redis.call('HMSET', KEYS[1], 'balance', ARGV[2], 'status', ARGV[3]) " +
+            "return 1";
+
+    private final AccountRepository accountRepository;
+    private final AccountUserRepository accountUserRepository;
+    private final TransactionRepository transactionRepository;
+    private final ObjectProvider<RedissonClient> redissonClientProvider; // REDIS 모드에서만 있다.
+    private final ConcurrencyProperties concurrencyProperties;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 잔액, 버전을 바꾸고 거래를 DB 에 기록할 목록과 취소 조회용 key 에 남긴다.
+     * 금액과 잔액은 지수 표기(1e+15)로 바뀌지 않도록 문자열로 다룬다.
+     */
+    private static String appendLedger(String transactionType) {
+        int offset = "USE".equals(transactionType) ? 1 : 0; // USE 는 ARGV[1] 이 userId
+        String amount = "ARGV[" + (1 + offset) + "]";
+        String transactionId = "ARGV[" + (2 + offset) + "]";
+        String transactedAt = "ARGV[" + (3 + offset) + "]";
+        String accountNumber = "ARGV[" + (4 + offset) + "]";
+        return "redis.call('HINCRBY', KEYS[1], 'version', 1) " +
+                "redis.call('HMSET', KEYS[3], 'accountNumber', " + accountNumber + ", " +
+                "'amount', " + amount + ", 'transactedAt', " + transactedAt + ") " +
+                "redis.call('RPUSH', KEYS[2], cjson.encode({" +
+                "transactionType = '" + transactionType + "', " +
+                "transactionId = " + transactionId + ", " +
+                "accountNumber = " + accountNumber + ", " +
+                "amount = " + amount + ", " +
+                "balance = string.format('%d', balance), " +
+                "transactedAt = " + transactedAt + "})) ";
+    }
+
+    public boolean isEnabled() {
+        return concurrencyProperties.isRedis();
+    }
+
+    private RedissonClient redissonClient() {
+        return redissonClientProvider.getObject();
+    }
+
+    public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+        accountUserRepository.findById(userId) // 로컬 캐시에서 조회
+                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+
+        String transactionId = transactionIdGenerator.generate();
+        LocalDateTime transactedAt = LocalDateTime.now();
+        Long balance = execute(USE_SCRIPT, accountNumber, transactionId,
+                String.valueOf(userId), String.valueOf(amount), transactionId,
+                transactedAt.toString(), accountNumber);
+
+        return toTransactionDto(USE, accountNumber, amount, balance, transactionId, transactedAt);
+    }
+
+    public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
+        TransactionDto transaction = findTransaction(transactionId)
+                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
+        validateCancelBalance(transaction, accountNumber, amount);
+
+        String cancelTransactionId = transactionIdGenerator.generate();
+        LocalDateTime transactedAt = LocalDateTime.now();
+        Long balance = execute(CANCEL_SCRIPT, accountNumber, cancelTransactionId,
+                String.valueOf(amount), cancelTransactionId, transactedAt.toString(),
+                accountNumber);
+
+        return toTransactionDto(CANCEL, accountNumber, amount, balance,
+                cancelTransactionId, transactedAt);
+    }
+
+    /**
+     * 잔액이 없을 때만 해지 상태로 바꾼다. 계좌 해지 트랜잭션 안에서 호출한다.
+     */
+    public void unregister(String accountNumber) {
+        String code = evalUnregister(accountNumber);
+        if (NOT_LOADED.equals(code)) {
+            load(accountNumber);
+            code = evalUnregister(accountNumber);
+        }
+        if (!OK.equals(code)) {
+            throw new AccountException(ErrorCode.valueOf(code));
+        }
+    }
+
+    /**
+     * DB 에 기록할 거래를 오래된 것부터 최대 count 개 읽는다. 읽은 거래는 목록에 남아 있다.
+     */
+    public List<LedgerEntry> peekLedger(int count) {
+        List<String> entries = redissonClient().<String>getList(LEDGER_KEY, StringCodec.INSTANCE)
+                .range(0, count - 1);
+        List<LedgerEntry> ledgerEntries = new ArrayList<>(entries.size());
+        for (String entry : entries) {
+            try {
+                ledgerEntries.add(objectMapper.readValue(entry, LedgerEntry.class));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Invalid ledger entry : " + entry, e);
+            }
+        }
+        return ledgerEntries;
+    }
+
+    /**
+     * DB 에 기록한 거래를 목록과 취소 조회용 key 에서 지운다.
+     */
+    public void removeLedger(List<LedgerEntry> entries) {
+        redissonClient().getList(LEDGER_KEY, StringCodec.INSTANCE).trim(entries.size(), -1);
+        redissonClient().getKeys().delete(entries.stream()
+                .map(entry -> PENDING_TRANSACTION_KEY + entry.getTransactionId())
+                .toArray(String[]::new));
+    }
+
+    /**
+     * Redis 에 올라와 있는 계좌번호
+     */
+    public Iterable<String> loadedAccountNumbers(int batchSize) {
+        Iterable<String> keys = redissonClient().getKeys()
+                .getKeysByPattern(BALANCE_KEY + "*", batchSize);
+        return () -> new Iterator<String>() {
+            private final Iterator<String> iterator = keys.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public String next() {
+                return iterator.next().substring(BALANCE_KEY.length());
+            }
+        };
+    }
+
+    public Optional<BalanceSnapshot> getSnapshot(String accountNumber) {
+        Map<String, String> fields = redissonClient()
+                .<String, String>getMap(BALANCE_KEY + accountNumber, StringCodec.INSTANCE)
+                .getAll(new HashSet<>(Arrays.asList("balance", "status", "version")));
+        if (fields.get("balance") == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new BalanceSnapshot(Long.valueOf(fields.get("balance")),
+                AccountStatus.valueOf(fields.get("status")), fields.get("version")));
+    }
+
+    /**
+     * snapshot 을 읽은 뒤로 거래가 없었을 때만 잔액과 상태를 바꾼다.
+     */
+    public boolean overwrite(String accountNumber, BalanceSnapshot snapshot,
+                             Long balance, AccountStatus accountStatus) {
+        Long updated = redissonClient().getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE, OVERWRITE_SCRIPT, RScript.ReturnType.INTEGER,
+                Collections.singletonList(BALANCE_KEY + accountNumber),
+                snapshot.getVersion(), String.valueOf(balance), accountStatus.name());
+        return updated == 1L;
+    }
+
+    /**
+     * 스크립트를 실행하고 거래 후 잔액을 반환한다.
+     * 계좌가 Redis 에 없으면 DB 에서 올린 뒤 한 번 더 실행한다.
+     */
+    private Long execute(String script, String accountNumber, String transactionId,
+                         Object... values) {
+        List<Object> keys = Arrays.asList(BALANCE_KEY + accountNumber, LEDGER_KEY,
+                PENDING_TRANSACTION_KEY + transactionId);
+
+        List<Object> result = eval(script, keys, values);
+        if (NOT_LOADED.equals(result.get(0))) {
+            load(accountNumber);
+            result = eval(script, keys, values);
+        }
+
+        String code = (String) result.get(0);
+        if (!OK.equals(code)) {
+            throw new AccountException(ErrorCode.valueOf(code));
+        }
+        return Long.valueOf((String) result.get(1));
+    }
+
+    private List<Object> eval(String script, List<Object> keys, Object... values) {
+        return redissonClient().getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE, script, RScript.ReturnType.MULTI, keys, values);
+    }
+
+    private String evalUnregister(String accountNumber) {
+        return redissonClient().getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE, UNREGISTER_SCRIPT, RScript.ReturnType.VALUE,
+                Collections.singletonList(BALANCE_KEY + accountNumber));
+    }
+
+    /**
+     * DB 의 잔액을 Redis 에 올린다. 이미 있으면 그대로 둔다.
+     */
+    private void load(String accountNumber) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        log.debug("Load balance to redis for accountNumber : {}", accountNumber);
+
+        redissonClient().getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE, LOAD_SCRIPT, RScript.ReturnType.INTEGER,
+                Collections.singletonList(BALANCE_KEY + accountNumber),
+                String.valueOf(account.getBalance()), account.getAccountStatus().name(),
+                String.valueOf(account.getAccountUser().getId()));
+    }
+
+    /**
+     * 아직 DB 에 기록되지 않은 거래부터 찾는다.
+     */
+    private Optional<TransactionDto> findTransaction(String transactionId) {
+        Map<String, String> pending = redissonClient()
+                .<String, String>getMap(PENDING_TRANSACTION_KEY + transactionId,
+                        StringCodec.INSTANCE)
+                .readAllMap();
+        if (!pending.isEmpty()) {
+            return Optional.of(TransactionDto.builder()
+                    .accountNumber(pending.get("accountNumber"))
+                    .amount(Long.valueOf(pending.get("amount")))
+                    .transactionId(transactionId)
+                    .transactedAt(LocalDateTime.parse(pending.get("transactedAt")))
+                    .build());
+        }
+        return transactionRepository.findDtoByTransactionId(transactionId);
+    }
+
+    private void validateCancelBalance(TransactionDto transaction,
+                                       String accountNumber, Long amount) {
+        if (!Objects.equals(transaction.getAccountNumber(), accountNumber)) {
+            if (!accountRepository.existsByAccountNumber(accountNumber)) {
+                throw new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+            }
+            throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH);
+        }
+
+        if (!Objects.equals(transaction.getAmount(), amount)) {
+            throw new AccountException(ErrorCode.CANCEL_MUST_FULLY);
+        }
+
+        if (transaction.getTransactedAt().isBefore(LocalDateTime.now().minusYears(1))) {
+            throw new AccountException(ErrorCode.TOO_OLD_ORDER_TO_CANCEL);
+        }
+    }
+
+    private static TransactionDto toTransactionDto(TransactionType transactionType,
+                                                   String accountNumber, Long amount,
+                                                   Long balance, String transactionId,
+                                                   LocalDateTime transactedAt) {
+        return TransactionDto.builder()
+                .accountNumber(accountNumber)
+                .transactionType(transactionType)
+                .transactionResultType(S)
+                .amount(amount)
+                .balanceSnapshot(balance)
+                .transactionId(transactionId)
+                .transactedAt(transactedAt)
+                .build();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class BalanceSnapshot {
+        private Long balance;
+        private AccountStatus accountStatus;
+        private String version;
+    }
+}
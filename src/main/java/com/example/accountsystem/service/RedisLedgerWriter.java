@@ -0,0 +1,172 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.config.ConcurrencyProperties;
+import com.example.accountsystem.domain.Account;
+import com.example.accountsystem.dto.LedgerEntry;
+import com.example.accountsystem.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis 에서 처리한 거래를 백그라운드 스레드에서 모아서 DB 에 기록한다. (account.concurrency.use=redis)
+ * 여러 서버 중 writer lock 을 잡은 서버 하나만 기록하고, 기록이 끝난 거래만 목록에서 지운다.
+ * 기록한 뒤 지우기 전에 멈췄다면 다음에 같은 거래를 다시 읽지만, 이미 기록된 거래 아이디는 건너뛴다.
+ * writer 가 되면 남은 거래를 모두 기록한 뒤 Redis 와 DB 의 잔액을 맞춘다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RedisLedgerWriter {
+    private static final String WRITER_LOCK = "ACLEDGER:writer";
+
+    private final RedisBalanceService redisBalanceService;
+    private final TransactionService transactionService;
+    private final AccountRepository accountRepository;
+    private final ObjectProvider<RedissonClient> redissonClientProvider; // REDIS 모드에서만 있다.
+    private final ConcurrencyProperties concurrencyProperties;
+
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private Thread writer;
+
+    @PostConstruct
+    public void start() {
+        if (!concurrencyProperties.isRedis()) {
+            return;
+        }
+        writer = new Thread(this::run, "redis-ledger-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        stopped.countDown();
+        writer.join(concurrencyProperties.getRedis().getFlushInterval().toMillis() * 2 + 5000L);
+    }
+
+    private void run() {
+        RLock lock = redissonClientProvider.getObject().getLock(WRITER_LOCK);
+        try {
+            while (stopped.getCount() > 0) {
+                try {
+                    if (!lock.isHeldByCurrentThread()) {
+                        if (!lock.tryLock()) { // 다른 서버가 기록 중
+                            await();
+                            continue;
+                        }
+                        log.info("Became redis ledger writer");
+                        drainAll();
+                        reconcile();
+                    }
+
+                    if (drain() == 0) {
+                        await();
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Failed to write redis ledger.", e);
+                    await();
+                }
+            }
+
+            // 종료할 때 남은 거래
+            if (lock.isHeldByCurrentThread()) {
+                drainAll();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Failed to write redis ledger on shutdown.", e);
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Redis 에 올라와 있는 계좌의 잔액과 상태를 DB 와 비교해서 다르면 DB 의 값으로 맞춘다.
+     * 남은 거래를 모두 기록한 뒤에도 다르다면 Redis 의 값이 유실되었거나 DB 를 직접 고친 경우다.
+     * 비교하는 사이에 거래가 있었던 계좌는 건너뛴다.
+     * 목록을 읽고 지우는 것은 writer 하나만 해야 하므로 writer 스레드에서만 호출한다.
+     */
+    void reconcile() {
+        int batchSize = concurrencyProperties.getRedis().getBatchSize();
+        List<String> accountNumbers = new ArrayList<>(batchSize);
+        int reconciled = 0;
+        for (String accountNumber : redisBalanceService.loadedAccountNumbers(batchSize)) {
+            accountNumbers.add(accountNumber);
+            if (accountNumbers.size() >= batchSize) {
+                reconciled += reconcile(accountNumbers);
+                accountNumbers.clear();
+            }
+        }
+        if (!accountNumbers.isEmpty()) {
+            reconciled += reconcile(accountNumbers);
+        }
+        log.info("Redis balance reconciliation finished. reconciled : {}", reconciled);
+    }
+
+    private int reconcile(List<String> accountNumbers) {
+        Map<String, RedisBalanceService.BalanceSnapshot> snapshots = new HashMap<>();
+        for (String accountNumber : accountNumbers) {
+            redisBalanceService.getSnapshot(accountNumber)
+                    .ifPresent(snapshot -> snapshots.put(accountNumber, snapshot));
+        }
+
+        // snapshot 까지의 거래를 DB 에 반영한 뒤 비교한다.
+        drainAll();
+
+        int reconciled = 0;
+        for (Account account : accountRepository.findByAccountNumberIn(snapshots.keySet())) {
+            RedisBalanceService.BalanceSnapshot snapshot = snapshots.get(account.getAccountNumber());
+            if (Objects.equals(snapshot.getBalance(), account.getBalance())
+                    && snapshot.getAccountStatus() == account.getAccountStatus()) {
+                continue;
+            }
+            if (redisBalanceService.overwrite(account.getAccountNumber(), snapshot,
+                    account.getBalance(), account.getAccountStatus())) {
+                log.warn("Reconciled redis balance for accountNumber : {}, redis : {}, db : {}",
+                        account.getAccountNumber(), snapshot.getBalance(), account.getBalance());
+                reconciled++;
+            }
+        }
+        return reconciled;
+    }
+
+    private void drainAll() {
+        while (drain() > 0) {
+            // 목록이 빌 때까지 기록한다.
+        }
+    }
+
+    private int drain() {
+        List<LedgerEntry> entries =
+                redisBalanceService.peekLedger(concurrencyProperties.getRedis().getBatchSize());
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        transactionService.saveLedgerEntries(entries);
+        redisBalanceService.removeLedger(entries);
+        log.debug("Wrote redis ledger. count : {}", entries.size());
+        return entries.size();
+    }
+
+    private void await() throws InterruptedException {
+        stopped.await(concurrencyProperties.getRedis().getFlushInterval().toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.accountsystem.service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 가장 많이 나온 키를 정해진 개수의 카운터로만 추정한다. (Space-Saving)
+ * 카운터가 다 차면 가장 작은 카운터를 새 키에 넘겨주고, 넘겨받은 값은 오차(error)로 남긴다.
+ * 실제 값은 count - error 이상 count 이하이고, capacity 보다 많이 나온 키는 빠지지 않는다.
+ * 동기화는 호출하는 쪽에서 한다.
+ */
+class SpaceSavingSummary {
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private final TreeSet<Counter> byCount = new TreeSet<>(Comparator
+            .comparingLong((Counter counter) -> counter.count)
+            .thenComparing(counter -> counter.key));
+
+    SpaceSavingSummary(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    void add(String key, long weight) {
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            if (counters.size() < capacity) {
+                counter = new Counter(key, 0);
+            } else {
+                Counter min = byCount.pollFirst();
+                counters.remove(min.key);
+                counter = new Counter(key, min.count);
+            }
+            counters.put(key, counter);
+        } else {
+            byCount.remove(counter);
+        }
+        counter.count += weight;
+        byCount.add(counter);
+    }
+
+    void clear() {
+        counters.clear();
+        byCount.clear();
+    }
+
+    /**
+     * 키별로 값과 오차를 더한다. ({count, error})
+     */
+    void addTo(Map<String, long[]> totals) {
+        for (Counter counter : counters.values()) {
+            long[] total = totals.computeIfAbsent(counter.key, key -> new long[2]);
+            total[0] += counter.count;
+            total[1] += counter.error;
+        }
+    }
+
+    private static class Counter {
+        private final String key;
+        private final long error;
+        private long count;
+
+        private Counter(String key, long error) {
+            this.key = key;
+            this.error = error;
+            this.count = error;
+        }
+    }
+}
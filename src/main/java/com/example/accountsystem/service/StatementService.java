@@ -0,0 +1,119 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.domain.Account;
+import com.example.accountsystem.domain.Transaction;
+import com.example.accountsystem.dto.TransactionDto;
+import com.example.accountsystem.exception.AccountException;
+import com.example.accountsystem.repository.AccountRepository;
+import com.example.accountsystem.repository.TransactionRepository;
+import com.example.accountsystem.type.ErrorCode;
+import com.example.accountsystem.type.StatementFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 기간 안의 거래 내역을 읽는 대로 바로 내보낸다.
+ * 거래를 목록으로 모으지 않고, 영속성 컨텍스트도 일정 건수마다 비우므로 거래 수와 관계없이 메모리 사용량이 일정하다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StatementService {
+    static final int CLEAR_INTERVAL = 1000; // 스트리밍 쿼리의 fetch size 와 같게 한 번 읽어온 만큼씩 비운다.
+
+    private static final String CSV_HEADER =
+            "accountNumber,transactionType,transactionResult,transactionId,amount,balanceSnapshot,transactedAt\n";
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 응답을 내보내기 시작하면 오류 응답을 줄 수 없으므로 먼저 확인한다.
+     */
+    public void validateStatement(String accountNumber, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+
+        if (!accountRepository.existsByAccountNumber(accountNumber)) {
+            throw new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+        }
+    }
+
+    /**
+     * from 이상 to 미만의 거래를 오래된 거래부터 내보낸다.
+     * 결과를 다 읽을 때까지 트랜잭션과 DB 연결을 유지한다.
+     */
+    @Transactional
+    public void writeStatement(String accountNumber, LocalDateTime from, LocalDateTime to,
+                               StatementFormat format, OutputStream outputStream) throws IOException {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+        OutputStream out = new BufferedOutputStream(outputStream);
+        if (format == StatementFormat.CSV) {
+            out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+
+        long count = 0;
+        try (Stream<Transaction> transactions =
+                     transactionRepository.streamStatement(account, from, to)) {
+            Iterator<Transaction> iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                // 계좌는 비운 영속성 컨텍스트에서 다시 읽지 않도록 요청의 계좌번호를 쓴다.
+                writeLine(toDto(accountNumber, iterator.next()), format, out);
+
+                if (++count % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        out.flush();
+
+        log.info("Statement exported. accountNumber : {}, count : {}", accountNumber, count);
+    }
+
+    private void writeLine(TransactionDto transactionDto, StatementFormat format,
+                           OutputStream out) throws IOException {
+        if (format == StatementFormat.CSV) {
+            out.write(String.join(",",
+                    transactionDto.getAccountNumber(),
+                    transactionDto.getTransactionType().name(),
+                    transactionDto.getTransactionResultType().name(),
+                    transactionDto.getTransactionId(),
+                    String.valueOf(transactionDto.getAmount()),
+                    String.valueOf(transactionDto.getBalanceSnapshot()),
+                    transactionDto.getTransactedAt().toString()
+            ).getBytes(StandardCharsets.UTF_8));
+        } else {
+            out.write(objectMapper.writeValueAsBytes(transactionDto));
+        }
+        out.write('\n');
+    }
+
+    private TransactionDto toDto(String accountNumber, Transaction transaction) {
+        return TransactionDto.builder()
+                .accountNumber(accountNumber)
+                .transactionType(transaction.getTransactionType())
+                .transactionResultType(transaction.getTransactionResultType())
+                .amount(transaction.getAmount())
+                .balanceSnapshot(transaction.getBalanceSnapshot())
+                .transactionId(transaction.getTransactionId())
+                .transactedAt(transaction.getTransactedAt())
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.exception.AccountException;
+import com.example.accountsystem.type.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 같은 서버 안에서 경쟁하는 요청을 Redis 까지 보내지 않기 위한 로컬 lock
+ * 계좌번호를 해시해서 고정된 개수의 lock(stripe) 중 하나를 사용한다.
+ */
+@Slf4j
+@Service
+public class StripedLockService {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public StripedLockService(
+            @Value("${account.lock.local.stripes:1024}") int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1; // 2의 거듭제곱으로 맞춘다.
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public void lock(String accountNumber) {
+        log.debug("Trying local lock for accountNumber : {}", accountNumber);
+
+        try {
+            if (!getStripe(accountNumber).tryLock(1, TimeUnit.SECONDS)) {
+                log.error("======Local lock acquisition failed======");
+                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+
+    public void unlock(String accountNumber) {
+        log.debug("Local unlock for accountNumber : {}", accountNumber);
+        getStripe(accountNumber).unlock();
+    }
+
+    private ReentrantLock getStripe(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+}
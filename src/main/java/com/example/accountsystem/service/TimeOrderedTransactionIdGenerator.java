@@ -0,0 +1,50 @@
+package com.example.accountsystem.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 생성 시각 순서로 정렬되는 거래 아이디 (32자리 16진수, 128bit)
+ * [밀리초 timestamp 48bit][서버 아이디 16bit][순번 64bit]
+ * 순번은 시작할 때 임의의 값에서 출발해 1씩 늘어나므로 lock 없이 서버 안에서 중복되지 않는다.
+ * 서버 시계가 뒤로 가면 정렬 순서만 어긋나고 중복은 생기지 않는다.
+ */
+@Component
+@ConditionalOnProperty(name = "account.transaction-id.generator",
+        havingValue = "time-ordered", matchIfMissing = true)
+public class TimeOrderedTransactionIdGenerator implements TransactionIdGenerator {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final long nodeId;
+    private final AtomicLong sequence;
+
+    public TimeOrderedTransactionIdGenerator(
+            @Value("${account.transaction-id.node-id:-1}") int nodeId) {
+        SecureRandom random = new SecureRandom();
+        // 서버 아이디를 지정하지 않으면 임의로 정한다.
+        this.nodeId = (nodeId < 0 ? random.nextInt() : nodeId) & 0xFFFF;
+        this.sequence = new AtomicLong(random.nextLong());
+    }
+
+    @Override
+    public String generate() {
+        long high = (System.currentTimeMillis() << 16) | nodeId;
+        long low = sequence.getAndIncrement();
+
+        char[] chars = new char[32];
+        writeHex(chars, 0, high);
+        writeHex(chars, 16, low);
+        return new String(chars);
+    }
+
+    private static void writeHex(char[] chars, int offset, long value) {
+        for (int i = offset + 15; i >= offset; i--) {
+            chars[i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.accountsystem.service;
+
+/**
+ * 거래 아이디 생성기
+ * account.transaction-id.generator 설정으로 구현체를 선택한다.
+ * 1. time-ordered : 생성 시각 순서로 정렬되는 32자리 16진수 (기본값)
+ * 2. uuid : UUID 에서 '-' 를 뺀 32자리 16진수
+ */
+public interface TransactionIdGenerator {
+    String generate();
+}
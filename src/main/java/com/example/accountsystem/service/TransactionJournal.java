@@ -0,0 +1,596 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.config.JournalProperties;
+import com.example.accountsystem.domain.Transaction;
+import com.example.accountsystem.dto.JournalRecord;
+import com.example.accountsystem.type.JournalRecordType;
+import com.example.accountsystem.type.TransactionResultType;
+import com.example.accountsystem.type.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 거래를 DB 에 바로 저장하지 않고 메모리 매핑된 파일에 순서대로 덧붙인다. (account.journal.enabled=true)
+ * 기록은 [길이][CRC32][내용] 형태이고, 파일(segment)이 다 차면 다음 파일에 이어서 쓴다.
+ * 여러 요청이 덧붙인 기록은 flusher 스레드가 한 번의 force 로 디스크에 내리고(group commit),
+ * 요청 스레드는 자기 기록이 디스크에 내려간 뒤에 DB 커밋을 진행한다.
+ * 커밋된 거래에는 커밋 기록을, 커밋되지 않은 거래에는 취소 기록을 덧붙이고 커밋된 거래만 DB 에 기록한다.
+ * 디스크에 내린 뒤 둘 다 남기기 전에 멈춘 거래는 다시 시작할 때 계좌의 현재 잔액과
+ * 거래의 balanceSnapshot 을 비교해서 커밋 여부를 정한다. (resolveInDoubt)
+ * DB 에는 TransactionJournalApplier 가 모아서 기록하고, 기록한 위치를 checkpoint 파일에 남긴다.
+ * 다시 시작하면 checkpoint 이후의 기록을 DB 에 다시 반영한다.
+ */
+@Slf4j
+@Component
+public class TransactionJournal {
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT = "checkpoint";
+    private static final int HEADER_SIZE = 8; // 길이 + CRC32
+    private static final int NEXT_SEGMENT = -1; // 남은 공간이 부족해서 다음 파일에 이어서 쓴다.
+
+    private final JournalProperties journalProperties;
+
+    // 아직 DB 에 기록되지 않은 거래 (조회, 취소할 때 찾는다.)
+    private final Map<String, JournalRecord> pending = new ConcurrentHashMap<>();
+    private final NavigableMap<Long, MappedByteBuffer> segments = new ConcurrentSkipListMap<>();
+    // 커밋 여부가 아직 정해지지 않은 기록의 시작 위치 (이 위치부터는 DB 에 기록하지 않는다.)
+    private final NavigableSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    // 커밋되지 않은 거래 (취소 기록이 DB 에 반영될 때까지)
+    private final Set<String> aborted = ConcurrentHashMap.newKeySet();
+    // 다시 시작할 때 찾은 커밋 여부를 모르는 거래 (resolveInDoubt 로 정할 때까지 inFlight 에도 남는다.)
+    private final NavigableMap<Long, JournalRecord> inDoubt = new TreeMap<>();
+    private final Object forced = new Object(); // flusher 와 요청 스레드가 기다리는 곳
+
+    private Path directory;
+    private long segmentSize;
+    private volatile long writePosition; // 바꿀 때는 synchronized (this)
+    private volatile long durablePosition;
+    private volatile long appliedPosition;
+    private volatile boolean running;
+    private Thread flusher;
+
+    public TransactionJournal(JournalProperties journalProperties) {
+        this.journalProperties = journalProperties;
+    }
+
+    public boolean isEnabled() {
+        return journalProperties.isEnabled();
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        directory = Files.createDirectories(Paths.get(journalProperties.getDirectory()));
+        segmentSize = journalProperties.getSegmentSize().toBytes();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    long index = Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length()));
+                    segments.put(index, map(index));
+                }
+            }
+        }
+
+        appliedPosition = readCheckpoint();
+        writePosition = findEnd(appliedPosition);
+        durablePosition = writePosition;
+        log.info("Opened transaction journal. directory : {}, applied : {}, end : {}",
+                directory, appliedPosition, writePosition);
+
+        running = true;
+        flusher = new Thread(this::flush, "transaction-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        synchronized (forced) {
+            forced.notifyAll();
+        }
+        flusher.join();
+    }
+
+    /**
+     * 트랜잭션이 커밋되기 직전에 기록하고 디스크에 내려갈 때까지 기다린다.
+     * 디스크에 내리지 못하면 예외가 나서 트랜잭션이 rollback 된다.
+     * rollback 된 거래에는 취소 기록을 남긴다. 트랜잭션 밖이면 바로 기록한다.
+     * 한 트랜잭션의 거래는 모아서 기록하므로 force 를 한 번만 기다린다.
+     */
+    @SuppressWarnings("unchecked")
+    public void appendBeforeCommit(Transaction transaction) {
+        JournalRecord record = JournalRecord.from(transaction);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(Collections.singletonList(record));
+            return;
+        }
+
+        List<JournalRecord> records =
+                (List<JournalRecord>) TransactionSynchronizationManager.getResource(this);
+        if (records == null) {
+            List<JournalRecord> prepared = new ArrayList<>();
+            List<Long> positions = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, prepared);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    prepare(prepared, positions);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TransactionJournal.this);
+                    if (!positions.isEmpty()) {
+                        if (status == STATUS_UNKNOWN) {
+                            log.warn("Unknown commit status, keeping journal records. count : {}",
+                                    prepared.size());
+                        }
+                        complete(prepared, positions, status != STATUS_ROLLED_BACK);
+                    }
+                }
+            });
+            records = prepared;
+        }
+        records.add(record);
+    }
+
+    public void append(List<JournalRecord> records) {
+        List<Long> positions = new ArrayList<>();
+        boolean durable = false;
+        try {
+            prepare(records, positions);
+            durable = true;
+        } finally {
+            complete(records, positions, durable);
+        }
+    }
+
+    /**
+     * 기록하고 디스크에 내려갈 때까지 기다린다. 커밋 여부가 정해질 때까지 DB 에는 기록하지 않는다.
+     */
+    private void prepare(List<JournalRecord> records, List<Long> positions) {
+        for (JournalRecord record : records) {
+            positions.add(write(record, true));
+        }
+        awaitDurable(writePosition);
+    }
+
+    /**
+     * 커밋된 거래에는 커밋 기록을 남기고 DB 에 기록할 수 있게 하고, 커밋되지 않은 거래에는 취소 기록을 남긴다.
+     */
+    private void complete(List<JournalRecord> records, List<Long> positions, boolean committed) {
+        try {
+            if (committed) {
+                commit(records);
+            } else if (!positions.isEmpty()) {
+                abort(records);
+            }
+        } finally {
+            inFlight.removeAll(positions);
+        }
+    }
+
+    /**
+     * 커밋 기록은 디스크에 내려갈 때까지 기다리지 않는다. (요청 스레드는 이미 DB 커밋을 마쳤다.)
+     */
+    private void commit(List<JournalRecord> records) {
+        records.forEach(record -> pending.put(record.getTransactionId(), record));
+        try {
+            for (JournalRecord record : records) {
+                write(record.toMarker(JournalRecordType.COMMITTED), false);
+            }
+        } catch (RuntimeException e) {
+            // 다시 시작하기 전에 DB 에 기록하지 못하면 계좌 잔액으로 커밋 여부를 정한다.
+            log.error("Failed to write journal commit records. transactionIds : {}",
+                    transactionIds(records), e);
+        }
+    }
+
+    private void abort(List<JournalRecord> records) {
+        records.forEach(record -> aborted.add(record.getTransactionId()));
+        try {
+            for (JournalRecord record : records) {
+                write(record.toMarker(JournalRecordType.ABORTED), false);
+            }
+            awaitDurable(writePosition);
+        } catch (RuntimeException e) {
+            // 다시 시작하면 계좌 잔액으로 커밋 여부를 정한다.
+            log.error("Failed to write journal abort records. transactionIds : {}",
+                    transactionIds(records), e);
+        }
+    }
+
+    /**
+     * 커밋된 거래의 기록인지 (커밋, 취소 기록과 커밋되지 않은 거래는 DB 에 기록하지 않는다.)
+     */
+    public boolean isCommitted(JournalRecord record) {
+        return record.getRecordType() == JournalRecordType.TRANSACTION
+                && !aborted.contains(record.getTransactionId());
+    }
+
+    /**
+     * 다시 시작할 때 찾은 커밋 여부를 모르는 거래의 계좌
+     */
+    public Set<Long> getInDoubtAccountIds() {
+        return inDoubt.values().stream()
+                .map(JournalRecord::getAccountId)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * 계좌의 현재 잔액(accountId -> balance)으로 커밋 여부를 모르는 거래를 정한다.
+     * 같은 계좌의 거래는 순서대로 커밋되므로 커밋된 거래는 앞쪽에 모여 있다.
+     * balanceSnapshot 이 현재 잔액과 같은 마지막 거래까지 커밋된 것으로 보고, 나머지는 취소한다.
+     */
+    public void resolveInDoubt(Map<Long, Long> balances) {
+        Map<Long, List<JournalRecord>> recordsByAccount = inDoubt.values().stream()
+                .collect(Collectors.groupingBy(JournalRecord::getAccountId));
+
+        List<JournalRecord> committed = new ArrayList<>();
+        List<JournalRecord> rolledBack = new ArrayList<>();
+        recordsByAccount.forEach((accountId, records) -> {
+            Long balance = balances.get(accountId);
+            int last = records.size() - 1;
+            while (last >= 0 && !records.get(last).getBalanceSnapshot().equals(balance)) {
+                last--;
+            }
+            committed.addAll(records.subList(0, last + 1));
+            rolledBack.addAll(records.subList(last + 1, records.size()));
+        });
+        log.warn("Resolved in-doubt journal records. committed : {}, aborted : {}",
+                transactionIds(committed), transactionIds(rolledBack));
+
+        rolledBack.forEach(record -> aborted.add(record.getTransactionId()));
+        for (JournalRecord record : committed) {
+            write(record.toMarker(JournalRecordType.COMMITTED), false);
+        }
+        for (JournalRecord record : rolledBack) {
+            write(record.toMarker(JournalRecordType.ABORTED), false);
+        }
+        awaitDurable(writePosition);
+
+        inFlight.removeAll(inDoubt.keySet());
+        inDoubt.clear();
+    }
+
+    private static List<String> transactionIds(List<JournalRecord> records) {
+        return records.stream().map(JournalRecord::getTransactionId).collect(Collectors.toList());
+    }
+
+    /**
+     * 기록하고 시작 위치를 반환한다. inFlight 이면 커밋 여부가 정해질 때까지 DB 에 기록하지 않는다.
+     */
+    private long write(JournalRecord record, boolean inFlight) {
+        byte[] payload = encode(record);
+        int length = HEADER_SIZE + payload.length;
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        long start;
+        synchronized (this) {
+            long offset = writePosition % segmentSize;
+            if (offset + length > segmentSize) {
+                MappedByteBuffer current = segments.get(writePosition / segmentSize);
+                if (current != null && segmentSize - offset >= Integer.BYTES) {
+                    current.putInt((int) offset, NEXT_SEGMENT);
+                }
+                writePosition = (writePosition / segmentSize + 1) * segmentSize;
+                offset = 0;
+            }
+
+            ByteBuffer buffer = segment(writePosition / segmentSize).duplicate();
+            buffer.position((int) offset + HEADER_SIZE);
+            buffer.put(payload);
+            buffer.putInt((int) offset + Integer.BYTES, (int) crc.getValue());
+            buffer.putInt((int) offset, payload.length);
+
+            start = writePosition;
+            if (inFlight) {
+                this.inFlight.add(start);
+            }
+            writePosition += length;
+        }
+        return start;
+    }
+
+    public Optional<JournalRecord> findPending(String transactionId) {
+        return Optional.ofNullable(pending.get(transactionId));
+    }
+
+    /**
+     * 디스크에 내려갔지만 아직 DB 에 기록되지 않은 거래를 최대 max 건 읽는다.
+     */
+    public List<JournalRecord> readUnapplied(int max) {
+        List<JournalRecord> records = new ArrayList<>();
+        long position = appliedPosition;
+        long limit = durablePosition;
+        Long firstInFlight = inFlight.ceiling(Long.MIN_VALUE); // limit 을 읽은 뒤에 확인해야 한다.
+        if (firstInFlight != null) {
+            limit = Math.min(limit, firstInFlight);
+        }
+        while (position < limit && records.size() < max) {
+            JournalRecord record = readAt(position);
+            if (record == null) {
+                break;
+            }
+            records.add(record);
+            position = record.getEndPosition();
+        }
+        return records;
+    }
+
+    /**
+     * DB 에 기록한 위치를 남기고, 더 이상 필요 없는 파일을 지운다.
+     */
+    public void markApplied(List<JournalRecord> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        long position = records.get(records.size() - 1).getEndPosition();
+        writeCheckpoint(position);
+        appliedPosition = position;
+        records.forEach(record -> {
+            if (record.getRecordType() == JournalRecordType.ABORTED) {
+                aborted.remove(record.getTransactionId());
+            } else if (record.getRecordType() == JournalRecordType.TRANSACTION) {
+                pending.remove(record.getTransactionId());
+            }
+        });
+
+        long firstNeeded = position / segmentSize;
+        for (Long index : new ArrayList<>(segments.headMap(firstNeeded).keySet())) {
+            segments.remove(index);
+            Files.deleteIfExists(segmentPath(index));
+        }
+    }
+
+    private void flush() {
+        while (true) {
+            long target = writePosition;
+            if (target > durablePosition) {
+                // 마지막으로 force 한 뒤에 기록된 파일만 내린다.
+                for (MappedByteBuffer buffer : segments.subMap(durablePosition / segmentSize, true,
+                        (target - 1) / segmentSize, true).values()) {
+                    buffer.force();
+                }
+                durablePosition = target;
+                synchronized (forced) {
+                    forced.notifyAll();
+                }
+                continue;
+            }
+
+            synchronized (forced) {
+                if (writePosition > durablePosition) {
+                    continue; // 확인한 뒤에 기록된 거래
+                }
+                if (!running) {
+                    return;
+                }
+                try {
+                    forced.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void awaitDurable(long position) {
+        synchronized (forced) {
+            forced.notifyAll(); // flusher 를 깨운다.
+            while (durablePosition < position) {
+                if (!running) {
+                    throw new IllegalStateException("Transaction journal is closed");
+                }
+                try {
+                    forced.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for journal", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * position 의 기록을 읽는다. 기록이 없거나 깨져 있으면 null
+     */
+    private JournalRecord readAt(long position) {
+        while (true) {
+            MappedByteBuffer segment = segments.get(position / segmentSize);
+            if (segment == null) {
+                return null;
+            }
+            int offset = (int) (position % segmentSize);
+            int length = segmentSize - offset >= HEADER_SIZE ? segment.getInt(offset) : NEXT_SEGMENT;
+            if (length == NEXT_SEGMENT) {
+                position = (position / segmentSize + 1) * segmentSize;
+                continue;
+            }
+            if (length <= 0 || offset + HEADER_SIZE + length > segmentSize) {
+                return null;
+            }
+
+            byte[] payload = new byte[length];
+            ByteBuffer buffer = segment.duplicate();
+            buffer.position(offset + HEADER_SIZE);
+            buffer.get(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != segment.getInt(offset + Integer.BYTES)) {
+                return null; // 기록하는 중에 멈춘 경우
+            }
+            return decode(payload).toBuilder()
+                    .endPosition(position + HEADER_SIZE + length)
+                    .build();
+        }
+    }
+
+    /**
+     * 마지막으로 온전하게 기록된 위치를 찾고, 그 뒤에 남은 깨진 기록은 지운다.
+     * 읽으면서 아직 DB 에 반영되지 않은 취소 기록과 커밋 여부를 모르는 거래를 모은다.
+     */
+    private long findEnd(long position) {
+        Set<String> completed = new HashSet<>();
+        JournalRecord record;
+        while ((record = readAt(position)) != null) {
+            if (record.getRecordType() == JournalRecordType.TRANSACTION) {
+                inDoubt.put(position, record);
+            } else {
+                if (record.getRecordType() == JournalRecordType.ABORTED) {
+                    aborted.add(record.getTransactionId());
+                }
+                completed.add(record.getTransactionId());
+            }
+            position = record.getEndPosition();
+        }
+        inDoubt.values().removeIf(inDoubtRecord -> completed.contains(inDoubtRecord.getTransactionId()));
+        inFlight.addAll(inDoubt.keySet());
+
+        MappedByteBuffer segment = segments.get(position / segmentSize);
+        if (segment != null) {
+            int offset = (int) (position % segmentSize);
+            for (int i = offset; i < segmentSize; i++) {
+                segment.put(i, (byte) 0);
+            }
+            segment.force();
+        }
+        for (Long index : new ArrayList<>(segments.tailMap(position / segmentSize, false).keySet())) {
+            segments.remove(index);
+            try {
+                Files.deleteIfExists(segmentPath(index));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return position;
+    }
+
+    private MappedByteBuffer segment(long index) {
+        return segments.computeIfAbsent(index, key -> {
+            try {
+                return map(key);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private MappedByteBuffer map(long index) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path checkpoint = directory.resolve(CHECKPOINT);
+        if (!Files.exists(checkpoint)) {
+            return segments.isEmpty() ? 0L : segments.firstKey() * segmentSize;
+        }
+        return ByteBuffer.wrap(Files.readAllBytes(checkpoint)).getLong();
+    }
+
+    private void writeCheckpoint(long position) throws IOException {
+        Path temp = directory.resolve(CHECKPOINT + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, position));
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static byte[] encode(JournalRecord record) {
+        byte[] transactionId = record.getTransactionId().getBytes(StandardCharsets.UTF_8);
+        if (record.getRecordType() != JournalRecordType.TRANSACTION) {
+            return ByteBuffer.allocate(1 + Short.BYTES + transactionId.length)
+                    .put((byte) record.getRecordType().ordinal())
+                    .putShort((short) transactionId.length).put(transactionId)
+                    .array();
+        }
+
+        byte[] accountNumber = record.getAccountNumber().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(3 + Long.BYTES * 4 + Integer.BYTES
+                + Short.BYTES * 2 + accountNumber.length + transactionId.length);
+        buffer.put((byte) record.getRecordType().ordinal());
+        buffer.put((byte) record.getTransactionType().ordinal());
+        buffer.put((byte) record.getTransactionResultType().ordinal());
+        buffer.putLong(record.getAccountId());
+        buffer.putLong(record.getAmount());
+        buffer.putLong(record.getBalanceSnapshot());
+        buffer.putLong(record.getTransactedAt().toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(record.getTransactedAt().getNano());
+        buffer.putShort((short) accountNumber.length).put(accountNumber);
+        buffer.putShort((short) transactionId.length).put(transactionId);
+        return buffer.array();
+    }
+
+    private static JournalRecord decode(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        JournalRecordType recordType = JournalRecordType.values()[buffer.get()];
+        if (recordType != JournalRecordType.TRANSACTION) {
+            byte[] transactionId = new byte[buffer.getShort()];
+            buffer.get(transactionId);
+            return JournalRecord.builder()
+                    .recordType(recordType)
+                    .transactionId(new String(transactionId, StandardCharsets.UTF_8))
+                    .build();
+        }
+
+        JournalRecord.JournalRecordBuilder builder = JournalRecord.builder()
+                .transactionType(TransactionType.values()[buffer.get()])
+                .transactionResultType(TransactionResultType.values()[buffer.get()])
+                .accountId(buffer.getLong())
+                .amount(buffer.getLong())
+                .balanceSnapshot(buffer.getLong());
+        long epochSecond = buffer.getLong();
+        builder.transactedAt(LocalDateTime.ofEpochSecond(epochSecond, buffer.getInt(), ZoneOffset.UTC));
+        byte[] accountNumber = new byte[buffer.getShort()];
+        buffer.get(accountNumber);
+        byte[] transactionId = new byte[buffer.getShort()];
+        buffer.get(transactionId);
+        return builder
+                .accountNumber(new String(accountNumber, StandardCharsets.UTF_8))
+                .transactionId(new String(transactionId, StandardCharsets.UTF_8))
+                .build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.config.JournalProperties;
+import com.example.accountsystem.domain.Account;
+import com.example.accountsystem.dto.JournalRecord;
+import com.example.accountsystem.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 저널에 기록된 거래를 백그라운드 스레드에서 모아서 DB 에 기록한다. (account.journal.enabled=true)
+ * 시작할 때는 요청을 받기 전에 커밋 여부를 모르는 거래를 계좌의 현재 잔액으로 정하고,
+ * 지난번에 DB 에 기록하지 못한 거래부터 모두 기록한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionJournalApplier {
+    private final TransactionJournal transactionJournal;
+    private final TransactionService transactionService;
+    private final AccountRepository accountRepository;
+    private final JournalProperties journalProperties;
+
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private Thread applier;
+
+    @PostConstruct
+    public void start() {
+        if (!transactionJournal.isEnabled()) {
+            return;
+        }
+        resolveInDoubt();
+        int replayed = applyAll();
+        log.info("Replayed transaction journal. count : {}", replayed);
+
+        applier = new Thread(this::run, "transaction-journal-applier");
+        applier.setDaemon(true);
+        applier.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (applier == null) {
+            return;
+        }
+        stopped.countDown();
+        applier.join(journalProperties.getApplyInterval().toMillis() * 2 + 5000L);
+    }
+
+    private void resolveInDoubt() {
+        Set<Long> accountIds = transactionJournal.getInDoubtAccountIds();
+        if (accountIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> balances = accountRepository.findAllById(accountIds).stream()
+                .collect(Collectors.toMap(Account::getId, Account::getBalance));
+        transactionJournal.resolveInDoubt(balances);
+    }
+
+    private void run() {
+        try {
+            while (stopped.getCount() > 0) {
+                try {
+                    if (apply() == 0) {
+                        stopped.await(journalProperties.getApplyInterval().toMillis(),
+                                TimeUnit.MILLISECONDS);
+                    }
+                } catch (RuntimeException e) {
+                    // 기록하지 못한 거래는 저널에 남아 있으므로 다음에 다시 시도한다.
+                    log.error("Failed to apply transaction journal.", e);
+                    stopped.await(journalProperties.getApplyInterval().toMillis(),
+                            TimeUnit.MILLISECONDS);
+                }
+            }
+            applyAll(); // 종료할 때 남은 거래
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Failed to apply transaction journal on shutdown.", e);
+        }
+    }
+
+    private int applyAll() {
+        int total = 0;
+        int applied;
+        while ((applied = apply()) > 0) {
+            total += applied;
+        }
+        return total;
+    }
+
+    private int apply() {
+        List<JournalRecord> records =
+                transactionJournal.readUnapplied(journalProperties.getBatchSize());
+        if (records.isEmpty()) {
+            return 0;
+        }
+
+        List<JournalRecord> committed = records.stream()
+                .filter(transactionJournal::isCommitted)
+                .collect(Collectors.toList());
+        if (!committed.isEmpty()) {
+            transactionService.saveJournalRecords(committed);
+        }
+        try {
+            transactionJournal.markApplied(records);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.debug("Applied transaction journal. count : {}", records.size());
+        return records.size();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.type.TransactionType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * 거래 처리 단계별 시간 (account.transaction.phase, /actuator/prometheus)
+ * 1. load : 사용자, 계좌, 거래를 읽어오는 시간
+ * 2. validate : 거래 가능 여부를 확인하는 시간
+ * 3. persist : 잔액을 바꾸고 거래를 저장해서 DB 에 반영(flush)하는 시간 (커밋은 제외)
+ * 실패한 단계는 기록하지 않는다.
+ */
+@Component
+public class TransactionMetrics {
+    public static final String LOAD = "load";
+    public static final String VALIDATE = "validate";
+    public static final String PERSIST = "persist";
+
+    private final MeterRegistry meterRegistry;
+
+    public TransactionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    /**
+     * 지금 단계의 시간을 기록하고 다음 단계를 잰다.
+     */
+    public Timer.Sample next(Timer.Sample sample, TransactionType transactionType, String phase) {
+        stop(sample, transactionType, phase);
+        return start();
+    }
+
+    public void stop(Timer.Sample sample, TransactionType transactionType, String phase) {
+        sample.stop(Timer.builder("account.transaction.phase")
+                .tag("operation", transactionType.name().toLowerCase())
+                .tag("phase", phase)
+                .register(meterRegistry));
+    }
+}
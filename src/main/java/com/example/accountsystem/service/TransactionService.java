@@ -1,25 +1,41 @@
 package com.example.accountsystem.service;
 
+import com.example.accountsystem.config.ConcurrencyProperties;
 import com.example.accountsystem.domain.Account;
+import com.example.accountsystem.domain.AccountChangedEvent;
 import com.example.accountsystem.domain.AccountUser;
 import com.example.accountsystem.domain.Transaction;
+import com.example.accountsystem.dto.FailedTransaction;
+import com.example.accountsystem.dto.JournalRecord;
+import com.example.accountsystem.dto.LedgerBalance;
+import com.example.accountsystem.dto.LedgerEntry;
+import com.example.accountsystem.dto.TransactionCursor;
 import com.example.accountsystem.dto.TransactionDto;
+import com.example.accountsystem.dto.TransactionOutcome;
+import com.example.accountsystem.dto.TransactionPage;
+import com.example.accountsystem.dto.UseBalance;
 import com.example.accountsystem.exception.AccountException;
 import com.example.accountsystem.repository.AccountRepository;
 import com.example.accountsystem.repository.AccountUserRepository;
 import com.example.accountsystem.repository.TransactionRepository;
 import com.example.accountsystem.type.AccountStatus;
+import com.example.accountsystem.type.ConcurrencyMode;
 import com.example.accountsystem.type.ErrorCode;
 import com.example.accountsystem.type.TransactionResultType;
 import com.example.accountsystem.type.TransactionType;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
-import java.util.Objects;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.example.accountsystem.type.TransactionResultType.*;
 import static com.example.accountsystem.type.TransactionType.*;
@@ -28,26 +44,139 @@ import static com.example.accountsystem.type.TransactionType.*;
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
+    private static final int MAX_PAGE_SIZE = 100; // 거래 내역 한 페이지의 최대 크기
+
     private final TransactionRepository transactionRepository;
     private final AccountUserRepository accountUserRepository;
     private final AccountRepository accountRepository;
+    private final ConcurrencyProperties concurrencyProperties;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final TransactionJournal transactionJournal;
+    private final LedgerBalanceService ledgerBalanceService;
+    private final TransactionMetrics transactionMetrics;
+    private final EntityManager entityManager;
 
     @Transactional
     public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+        Timer.Sample phase = transactionMetrics.start();
         AccountUser accountUser = accountUserRepository.findById(userId)
                 .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
 
         Account account = accountRepository.findByAccountNumber(accountNumber)
                         .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        phase = transactionMetrics.next(phase, USE, TransactionMetrics.LOAD);
+
+        if (concurrencyProperties.getUse() == ConcurrencyMode.ATOMIC) {
+            validateAccountOwner(accountUser, account);
+            phase = transactionMetrics.next(phase, USE, TransactionMetrics.VALIDATE);
+
+            // lock 없이 잔액 확인과 차감을 UPDATE 한 번으로 처리한다.
+            Long balance = accountRepository.useBalanceIfSufficient(accountNumber, amount)
+                    .orElseThrow(() -> new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+            applicationEventPublisher.publishEvent(AccountChangedEvent.changedInDatabase(account));
+
+            Transaction transaction = saveAndGetTransaction(USE, S, account, amount, balance);
+            stopPersist(phase, USE);
+            return TransactionDto.fromEntity(transaction);
+        }
+
+        if (ledgerBalanceService.isEnabled()) {
+            LedgerBalance ledgerBalance = ledgerBalanceService.getBalanceForUpdate(account);
+            validateUseBalance(accountUser, account, ledgerBalance.getBalance(), amount);
+            phase = transactionMetrics.next(phase, USE, TransactionMetrics.VALIDATE);
+
+            // 잔액 컬럼은 바꾸지 않고 거래만 추가한다.
+            ledgerBalance = ledgerBalance.apply(USE, amount);
+            Transaction transaction =
+                    saveAndGetTransaction(USE, S, account, amount, ledgerBalance.getBalance());
+            ledgerBalanceService.appended(transaction, ledgerBalance);
+            applicationEventPublisher.publishEvent(AccountChangedEvent.changedInDatabase(account));
+
+            stopPersist(phase, USE);
+            return TransactionDto.fromEntity(transaction);
+        }
 
         validateUseBalance(accountUser, account, amount);
+        phase = transactionMetrics.next(phase, USE, TransactionMetrics.VALIDATE);
 
         account.useBalance(amount);
+        applicationEventPublisher.publishEvent(AccountChangedEvent.changed(account));
+
+        Transaction transaction = saveAndGetTransaction(USE, S, account, amount);
+        stopPersist(phase, USE);
+        return TransactionDto.fromEntity(transaction);
+    }
+
+    /**
+     * 같은 계좌에 대한 잔액 사용 요청들을 순서대로 한 트랜잭션에서 처리한다.
+     * 실패한 요청은 잔액을 바꾸기 전에 검증에서 걸러지므로 나머지 요청에 영향을 주지 않는다.
+     */
+    @Transactional
+    public List<TransactionOutcome> useBalances(String accountNumber,
+                                                List<UseBalance.Request> requests) {
+        Optional<Account> account = accountRepository.findByAccountNumber(accountNumber);
+        Map<Long, Optional<AccountUser>> accountUsers = new HashMap<>();
+        List<TransactionOutcome> outcomes = new ArrayList<>(requests.size());
+        LedgerBalance ledgerBalance = null; // account.ledger.enabled=true 일 때 요청마다 이어서 계산한다.
+
+        for (UseBalance.Request request : requests) {
+            try {
+                AccountUser accountUser = accountUsers
+                        .computeIfAbsent(request.getUserId(), accountUserRepository::findById)
+                        .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+                Account target = account
+                        .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+                if (ledgerBalanceService.isEnabled()) {
+                    if (ledgerBalance == null) {
+                        ledgerBalance = ledgerBalanceService.getBalanceForUpdate(target);
+                    }
+                    validateUseBalance(accountUser, target,
+                            ledgerBalance.getBalance(), request.getAmount());
+
+                    LedgerBalance used = ledgerBalance.apply(USE, request.getAmount());
+                    Transaction transaction = saveAndGetTransaction(
+                            USE, S, target, request.getAmount(), used.getBalance());
+                    ledgerBalance = ledgerBalanceService.appended(transaction, used);
+
+                    outcomes.add(TransactionOutcome.success(TransactionDto.fromEntity(transaction)));
+                    continue;
+                }
 
-        return TransactionDto.fromEntity(saveAndGetTransaction(USE, S, account, amount));
+                validateUseBalance(accountUser, target, request.getAmount());
+
+                target.useBalance(request.getAmount());
+
+                outcomes.add(TransactionOutcome.success(TransactionDto.fromEntity(
+                        saveAndGetTransaction(USE, S, target, request.getAmount()))));
+            } catch (AccountException e) {
+                outcomes.add(TransactionOutcome.failure(e));
+            }
+        }
+
+        if (outcomes.stream().anyMatch(TransactionOutcome::isSuccess)) {
+            applicationEventPublisher.publishEvent(ledgerBalanceService.isEnabled()
+                    ? AccountChangedEvent.changedInDatabase(account.get())
+                    : AccountChangedEvent.changed(account.get()));
+        }
+        return outcomes;
     }
 
     private void validateUseBalance(AccountUser accountUser, Account account, Long amount) {
+        validateUseBalance(accountUser, account, account.getBalance(), amount);
+    }
+
+    private void validateUseBalance(AccountUser accountUser, Account account,
+                                    Long balance, Long amount) {
+        validateAccountOwner(accountUser, account);
+
+        if (balance < amount) {
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+    }
+
+    private void validateAccountOwner(AccountUser accountUser, Account account) {
         if (!Objects.equals(accountUser.getId(), account.getAccountUser().getId())) {
             throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
         }
@@ -55,58 +184,227 @@ public class TransactionService {
         if (account.getAccountStatus() == AccountStatus.UNREGISTERED) {
             throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
         }
+    }
 
-        if (account.getBalance() < amount) {
-            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+    /**
+     * 대기열에 쌓인 실패한 거래를 한 번에 기록한다.
+     * 계좌는 한 번에 조회하고, 존재하지 않는 계좌에 대한 거래는 기록할 수 없으므로 건너뛴다.
+     * 잔액 스냅샷은 기록 시점의 잔액이다.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void saveFailedTransactions(List<FailedTransaction> failedTransactions) {
+        Map<String, Account> accounts = accountRepository.findByAccountNumberIn(
+                        failedTransactions.stream()
+                                .map(FailedTransaction::getAccountNumber)
+                                .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
+
+        List<Transaction> transactions = new ArrayList<>(failedTransactions.size());
+        Map<Account, Long> balances = new HashMap<>();
+        for (FailedTransaction failedTransaction : failedTransactions) {
+            Account account = accounts.get(failedTransaction.getAccountNumber());
+            if (account == null) {
+                log.warn("Skip failed transaction for unknown accountNumber : {}",
+                        failedTransaction.getAccountNumber());
+                continue;
+            }
+            transactions.add(Transaction.builder()
+                    .transactionType(failedTransaction.getTransactionType())
+                    .transactionResultType(F)
+                    .account(account)
+                    .amount(failedTransaction.getAmount())
+                    .balanceSnapshot(balances.computeIfAbsent(account, this::currentBalance))
+                    .transactionId(transactionIdGenerator.generate())
+                    .transactedAt(failedTransaction.getTransactedAt())
+                    .build());
         }
+        transactionRepository.saveAll(transactions);
     }
 
-    @Transactional
-    public void saveFailedUseTransaction(String accountNumber, Long amount) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+    /**
+     * Redis 에서 처리한 거래를 순서대로 기록하고 계좌 잔액을 마지막 거래 후 잔액으로 맞춘다.
+     * 이미 기록된 거래는 건너뛰므로 같은 거래를 다시 기록해도 된다.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void saveLedgerEntries(List<LedgerEntry> ledgerEntries) {
+        Set<String> savedTransactionIds = new HashSet<>(transactionRepository.findTransactionIdsIn(
+                ledgerEntries.stream()
+                        .map(LedgerEntry::getTransactionId)
+                        .collect(Collectors.toList())));
+        Map<String, Account> accounts = accountRepository.findByAccountNumberIn(
+                        ledgerEntries.stream()
+                                .map(LedgerEntry::getAccountNumber)
+                                .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
 
-        saveAndGetTransaction(USE, F, account, amount);
+        List<Transaction> transactions = new ArrayList<>(ledgerEntries.size());
+        Set<Account> changedAccounts = new LinkedHashSet<>();
+        for (LedgerEntry ledgerEntry : ledgerEntries) {
+            if (savedTransactionIds.contains(ledgerEntry.getTransactionId())) {
+                continue;
+            }
+            Account account = accounts.get(ledgerEntry.getAccountNumber());
+            if (account == null) {
+                log.warn("Skip ledger entry for unknown accountNumber : {}",
+                        ledgerEntry.getAccountNumber());
+                continue;
+            }
+
+            account.setBalance(ledgerEntry.getBalance());
+            changedAccounts.add(account);
+            transactions.add(Transaction.builder()
+                    .transactionType(ledgerEntry.getTransactionType())
+                    .transactionResultType(S)
+                    .account(account)
+                    .amount(ledgerEntry.getAmount())
+                    .balanceSnapshot(ledgerEntry.getBalance())
+                    .transactionId(ledgerEntry.getTransactionId())
+                    .transactedAt(ledgerEntry.getTransactedAt())
+                    .build());
+        }
+        transactionRepository.saveAll(transactions);
+        changedAccounts.forEach(account ->
+                applicationEventPublisher.publishEvent(AccountChangedEvent.changed(account)));
     }
 
     private Transaction saveAndGetTransaction(
             TransactionType transactionType,
             TransactionResultType transactionResultType,
             Account account, Long amount) {
-        return transactionRepository.save(
-                Transaction.builder()
-                        .transactionType(transactionType)
-                        .transactionResultType(transactionResultType)
-                        .account(account)
-                        .amount(amount)
-                        .balanceSnapshot(account.getBalance())
-                        .transactionId(UUID.randomUUID().toString().replace("-", ""))
-                        .transactedAt(LocalDateTime.now())
-                        .build()
-        );
+        return saveAndGetTransaction(transactionType, transactionResultType,
+                account, amount, currentBalance(account));
+    }
+
+    private Long currentBalance(Account account) {
+        return ledgerBalanceService.isEnabled()
+                ? ledgerBalanceService.getBalance(account).getBalance()
+                : account.getBalance();
+    }
+
+    /**
+     * 바꾼 잔액과 거래를 DB 에 반영(flush)한 뒤에 저장 단계의 시간을 기록한다. (커밋 시간은 제외)
+     */
+    private void stopPersist(Timer.Sample phase, TransactionType transactionType) {
+        entityManager.flush();
+        transactionMetrics.stop(phase, transactionType, TransactionMetrics.PERSIST);
+    }
+
+    private Transaction saveAndGetTransaction(
+            TransactionType transactionType,
+            TransactionResultType transactionResultType,
+            Account account, Long amount, Long balanceSnapshot) {
+        Transaction transaction = Transaction.builder()
+                .transactionType(transactionType)
+                .transactionResultType(transactionResultType)
+                .account(account)
+                .amount(amount)
+                .balanceSnapshot(balanceSnapshot)
+                .transactionId(transactionIdGenerator.generate())
+                .transactedAt(LocalDateTime.now())
+                .build();
+
+        if (transactionJournal.isEnabled()) {
+            // 커밋하기 전에 저널에 기록하고, DB 에는 TransactionJournalApplier 가 나중에 기록한다.
+            transactionJournal.appendBeforeCommit(transaction);
+            return transaction;
+        }
+        return transactionRepository.save(transaction);
     }
 
+    /**
+     * 저널에 기록된 거래를 DB 에 기록한다.
+     * 이미 기록된 거래는 건너뛰므로 같은 거래를 다시 기록해도 된다.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void saveJournalRecords(List<JournalRecord> journalRecords) {
+        Set<String> savedTransactionIds = new HashSet<>(transactionRepository.findTransactionIdsIn(
+                journalRecords.stream()
+                        .map(JournalRecord::getTransactionId)
+                        .collect(Collectors.toList())));
+
+        transactionRepository.saveAll(journalRecords.stream()
+                .filter(record -> !savedTransactionIds.contains(record.getTransactionId()))
+                .map(record -> record.toTransaction(
+                        accountRepository.getReferenceById(record.getAccountId())))
+                .collect(Collectors.toList()));
+    }
+
+
     @Transactional
     public TransactionDto cancelBalance(String transactionId,
                                         String accountNumber, Long amount) {
-        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        Timer.Sample phase = transactionMetrics.start();
+        Transaction transaction = transactionRepository
+                .findWithAccountByTransactionIdAndAccountNumber(transactionId, accountNumber)
+                .or(() -> findJournaledTransaction(transactionId, accountNumber))
+                .orElseThrow(() -> cancelTargetNotFound(transactionId, accountNumber));
+        Account account = transaction.getAccount();
+        phase = transactionMetrics.next(phase, CANCEL, TransactionMetrics.LOAD);
+
+        validateCancelBalance(transaction, amount);
+        phase = transactionMetrics.next(phase, CANCEL, TransactionMetrics.VALIDATE);
 
-        validateCancelBalance(transaction, account, amount);
+        if (ledgerBalanceService.isEnabled()) {
+            LedgerBalance ledgerBalance = ledgerBalanceService.getBalanceForUpdate(account)
+                    .apply(CANCEL, amount);
+            Transaction cancelTransaction =
+                    saveAndGetTransaction(CANCEL, S, account, amount, ledgerBalance.getBalance());
+            ledgerBalanceService.appended(cancelTransaction, ledgerBalance);
+            applicationEventPublisher.publishEvent(AccountChangedEvent.changedInDatabase(account));
+
+            stopPersist(phase, CANCEL);
+            return TransactionDto.fromEntity(cancelTransaction);
+        }
+
+        if (concurrencyProperties.getCancel() == ConcurrencyMode.ATOMIC) {
+            Long balance = accountRepository.cancelBalance(accountNumber, amount)
+                    .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+            applicationEventPublisher.publishEvent(AccountChangedEvent.changedInDatabase(account));
+
+            Transaction cancelTransaction =
+                    saveAndGetTransaction(CANCEL, S, account, amount, balance);
+            stopPersist(phase, CANCEL);
+            return TransactionDto.fromEntity(cancelTransaction);
+        }
 
         account.cancelBalance(amount);
+        applicationEventPublisher.publishEvent(AccountChangedEvent.changed(account));
 
-        return TransactionDto.fromEntity(saveAndGetTransaction(CANCEL, S, account, amount));
+        Transaction cancelTransaction = saveAndGetTransaction(CANCEL, S, account, amount);
+        stopPersist(phase, CANCEL);
+        return TransactionDto.fromEntity(cancelTransaction);
+    }
 
+    /**
+     * 저널에만 있고 아직 DB 에 기록되지 않은 거래
+     */
+    private Optional<Transaction> findJournaledTransaction(String transactionId,
+                                                           String accountNumber) {
+        return transactionJournal.findPending(transactionId)
+                .filter(record -> Objects.equals(record.getAccountNumber(), accountNumber))
+                .flatMap(record -> accountRepository.findById(record.getAccountId())
+                        .map(record::toTransaction));
     }
 
-    private void validateCancelBalance(Transaction transaction, Account account, Long amount) {
-        if (!Objects.equals(transaction.getAccount().getId(), account.getId())) {
-            throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH);
+    /**
+     * 거래와 계좌를 함께 찾지 못했을 때만 따로 조회해서 실패 원인을 구분한다.
+     */
+    private AccountException cancelTargetNotFound(String transactionId, String accountNumber) {
+        if (!transactionRepository.existsByTransactionId(transactionId)
+                && transactionJournal.findPending(transactionId).isEmpty()) {
+            return new AccountException(ErrorCode.TRANSACTION_NOT_FOUND);
         }
 
+        if (!accountRepository.existsByAccountNumber(accountNumber)) {
+            return new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+        }
+
+        return new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH);
+    }
+
+    private void validateCancelBalance(Transaction transaction, Long amount) {
         if (!Objects.equals(transaction.getAmount(), amount)) {
             throw new AccountException(ErrorCode.CANCEL_MUST_FULLY);
         }
@@ -116,19 +414,47 @@ public class TransactionService {
         }
     }
 
+    /**
+     * 계좌의 거래 내역을 최신 거래부터 limit 개씩 조회한다.
+     * 다음 페이지가 있는지 알기 위해 하나를 더 읽는다.
+     * 저널에만 있는 거래는 DB 에 기록된 뒤에 보인다.
+     */
     @Transactional
-    public void saveFailedCancelTransaction(String accountNumber, Long amount) {
+    public TransactionPage queryTransactions(String accountNumber, String after, int limit,
+                                             TransactionType transactionType,
+                                             TransactionResultType transactionResultType) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+        TransactionCursor cursor = after == null ? null : TransactionCursor.decode(after);
+
         Account account = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
 
-        saveAndGetTransaction(CANCEL, F, account, amount);
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+        List<Transaction> transactions = cursor == null
+                ? transactionRepository.findPage(account,
+                        transactionType, transactionResultType, pageRequest)
+                : transactionRepository.findPageAfter(account,
+                        cursor.getTransactedAt(), cursor.getId(),
+                        transactionType, transactionResultType, pageRequest);
+
+        boolean hasNext = transactions.size() > limit;
+        List<Transaction> page = hasNext ? transactions.subList(0, limit) : transactions;
+
+        return TransactionPage.builder()
+                .transactions(page.stream()
+                        .map(TransactionDto::fromEntity)
+                        .collect(Collectors.toList()))
+                .next(hasNext ? TransactionCursor.from(page.get(limit - 1)).encode() : null)
+                .build();
     }
 
     public TransactionDto queryTransaction(String transactionId) {
 
-        return TransactionDto.fromEntity(
-                transactionRepository.findByTransactionId(transactionId)
-                    .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND))
-        );
+        return transactionRepository.findDtoByTransactionId(transactionId)
+                .or(() -> transactionJournal.findPending(transactionId)
+                        .map(JournalRecord::toTransactionDto))
+                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
     }
 }
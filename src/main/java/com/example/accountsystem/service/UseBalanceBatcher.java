@@ -0,0 +1,237 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.config.ConcurrencyProperties;
+import com.example.accountsystem.dto.TransactionDto;
+import com.example.accountsystem.dto.TransactionOutcome;
+import com.example.accountsystem.dto.UseBalance;
+import com.example.accountsystem.exception.AccountException;
+import com.example.accountsystem.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * 같은 계좌로 동시에 들어온 잔액 사용 요청을 모아서 처리한다. (account.concurrency.use=batched)
+ * 먼저 도착한 요청 스레드가 잠시 기다렸다가 쌓인 요청을 모두 가져가
+ * 계좌 lock 한 번, 트랜잭션 한 번으로 처리하고 각 요청에 결과를 돌려준다.
+ * 자기 요청이 처리되면 남은 요청은 기다리는 다음 스레드에게 넘긴다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UseBalanceBatcher {
+    private static final String USE_ENDPOINT = "use";
+
+    private final TransactionService transactionService;
+    private final AccountLockTemplate accountLockTemplate;
+    private final ConcurrencyProperties concurrencyProperties;
+    private final RedisBalanceService redisBalanceService;
+    private final LockMetrics lockMetrics;
+
+    // 요청이 있는 계좌의 대기열 (비면 제거한다.)
+    private final ConcurrentHashMap<String, AccountQueue> queues = new ConcurrentHashMap<>();
+
+    public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+        PendingUse pending = new PendingUse(new UseBalance.Request(userId, accountNumber, amount));
+        AccountQueue queue = queues.computeIfAbsent(accountNumber, key -> new AccountQueue());
+        queue.requests.add(pending);
+
+        // 처리 중인 스레드가 없으면 직접 처리하고, 있으면 자기 요청이 끝나거나 처리를 넘겨받을 때까지 기다린다.
+        while (!pending.result.isDone()) {
+            if (queue.draining.compareAndSet(false, true)) {
+                try {
+                    drain(accountNumber, queue);
+                } finally {
+                    queue.draining.set(false);
+                    handOff(queue);
+                }
+            } else {
+                LockSupport.park(this);
+            }
+        }
+
+        // 제거한 뒤에 이 대기열에 요청을 넣은 스레드는 위 반복문에서 직접 처리하므로 유실되지 않는다.
+        if (queue.requests.isEmpty() && !queue.draining.get()) {
+            queues.remove(accountNumber, queue);
+        }
+
+        try {
+            return pending.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 요청을 계좌별로 나눠 account.concurrency.use 방식으로 처리한다.
+     * lock 을 쓰는 방식은 계좌마다 lock 한 번, 트랜잭션 한 번으로 처리한다.
+     * 동시성 제어에 실패한 계좌의 요청만 실패로 끝나고, 결과는 요청과 같은 순서로 반환한다.
+     */
+    public List<TransactionOutcome> useBalances(List<UseBalance.Request> requests) {
+        if (redisBalanceService.isEnabled()) {
+            return useBalancesInRedis(requests);
+        }
+
+        Map<String, List<Integer>> indexesByAccount = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            indexesByAccount.computeIfAbsent(requests.get(i).getAccountNumber(),
+                    key -> new ArrayList<>()).add(i);
+        }
+
+        TransactionOutcome[] outcomes = new TransactionOutcome[requests.size()];
+        indexesByAccount.forEach((accountNumber, indexes) -> {
+            List<UseBalance.Request> group = indexes.stream()
+                    .map(requests::get)
+                    .collect(Collectors.toList());
+
+            List<TransactionOutcome> groupOutcomes;
+            try {
+                groupOutcomes = useBalancesOfAccount(accountNumber, group);
+            } catch (AccountException e) {
+                groupOutcomes = Collections.nCopies(group.size(), TransactionOutcome.failure(e));
+            } catch (ConcurrencyFailureException e) {
+                log.error("Concurrency failure in use balance batch for accountNumber : {}",
+                        accountNumber, e);
+                groupOutcomes = Collections.nCopies(group.size(), TransactionOutcome.failure(
+                        new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK)));
+            }
+
+            for (int i = 0; i < indexes.size(); i++) {
+                outcomes[indexes.get(i)] = groupOutcomes.get(i);
+            }
+        });
+
+        return Arrays.asList(outcomes);
+    }
+
+    /**
+     * Redis 의 잔액을 쓰면 lock 이 필요 없으므로 요청마다 스크립트로 처리한다.
+     */
+    private List<TransactionOutcome> useBalancesInRedis(List<UseBalance.Request> requests) {
+        List<TransactionOutcome> outcomes = new ArrayList<>(requests.size());
+        for (UseBalance.Request request : requests) {
+            try {
+                outcomes.add(TransactionOutcome.success(redisBalanceService.useBalance(
+                        request.getUserId(), request.getAccountNumber(), request.getAmount())));
+            } catch (AccountException e) {
+                outcomes.add(TransactionOutcome.failure(e));
+            }
+        }
+        return outcomes;
+    }
+
+    private List<TransactionOutcome> useBalancesOfAccount(String accountNumber,
+                                                          List<UseBalance.Request> requests) {
+        switch (concurrencyProperties.getUse()) {
+            case ATOMIC:
+                // 요청마다 조건부 UPDATE 한 번으로 처리한다.
+                return requests.stream()
+                        .map(this::useBalanceAtomically)
+                        .collect(Collectors.toList());
+            case OPTIMISTIC:
+                // 버전 충돌이 나면 트랜잭션 전체가 rollback 되므로 묶음을 다시 처리한다.
+                return OptimisticRetry.execute(concurrencyProperties.getOptimistic(),
+                        lockMetrics, USE_ENDPOINT,
+                        () -> transactionService.useBalances(accountNumber, requests));
+            default:
+                return useBalancesWithLock(accountNumber, requests);
+        }
+    }
+
+    private TransactionOutcome useBalanceAtomically(UseBalance.Request request) {
+        try {
+            return TransactionOutcome.success(transactionService.useBalance(
+                    request.getUserId(), request.getAccountNumber(), request.getAmount()));
+        } catch (AccountException e) {
+            return TransactionOutcome.failure(e);
+        }
+    }
+
+    private List<TransactionOutcome> useBalancesWithLock(String accountNumber,
+                                                         List<UseBalance.Request> requests) {
+        return accountLockTemplate.execute(accountNumber, USE_ENDPOINT,
+                () -> transactionService.useBalances(accountNumber, requests));
+    }
+
+    private void drain(String accountNumber, AccountQueue queue) {
+        ConcurrencyProperties.Batch batch = concurrencyProperties.getBatch();
+        if (queue.requests.size() < batch.getMaxSize()) {
+            LockSupport.parkNanos(batch.getWindow().toNanos());
+        }
+
+        List<PendingUse> pendings = new ArrayList<>(batch.getMaxSize());
+        PendingUse pending;
+        while (pendings.size() < batch.getMaxSize() && (pending = queue.requests.poll()) != null) {
+            pendings.add(pending);
+        }
+        if (pendings.isEmpty()) {
+            return;
+        }
+        log.debug("Use balance batch for accountNumber : {}, size : {}",
+                accountNumber, pendings.size());
+
+        List<TransactionOutcome> outcomes;
+        try {
+            outcomes = useBalancesWithLock(accountNumber,
+                    pendings.stream().map(p -> p.request).collect(Collectors.toList()));
+        } catch (RuntimeException e) {
+            pendings.forEach(p -> p.completeExceptionally(e));
+            return;
+        }
+
+        // unlock(commit) 이후에 결과를 알려준다.
+        for (int i = 0; i < pendings.size(); i++) {
+            TransactionOutcome outcome = outcomes.get(i);
+            if (outcome.isSuccess()) {
+                pendings.get(i).complete(outcome.getTransaction());
+            } else {
+                pendings.get(i).completeExceptionally(outcome.getException());
+            }
+        }
+    }
+
+    /**
+     * 남은 요청 중 가장 먼저 들어온 요청의 스레드를 깨워서 처리를 넘긴다.
+     */
+    private static void handOff(AccountQueue queue) {
+        PendingUse next = queue.requests.peek();
+        if (next != null) {
+            LockSupport.unpark(next.thread);
+        }
+    }
+
+    private static class AccountQueue {
+        private final Queue<PendingUse> requests = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+    }
+
+    @RequiredArgsConstructor
+    private static class PendingUse {
+        private final UseBalance.Request request;
+        private final Thread thread = Thread.currentThread();
+        private final CompletableFuture<TransactionDto> result = new CompletableFuture<>();
+
+        private void complete(TransactionDto transaction) {
+            result.complete(transaction);
+            LockSupport.unpark(thread);
+        }
+
+        private void completeExceptionally(Throwable exception) {
+            result.completeExceptionally(exception);
+            LockSupport.unpark(thread);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.accountsystem.type;
+
+public enum ConcurrencyMode {
+    PESSIMISTIC, // 계좌 lock 을 잡고 처리
+    ATOMIC, // lock 없이 조건부 UPDATE 한 번으로 잔액 변경
+    OPTIMISTIC, // lock 없이 버전 충돌 시 재시도
+    BATCHED, // 같은 계좌의 동시 요청을 모아 lock 한 번, 트랜잭션 한 번으로 처리 (잔액 사용만 가능)
+    REDIS // Redis 의 잔액을 Lua 스크립트로 바꾸고 DB 에는 나중에 모아서 기록 (사용과 취소 모두 지정)
+}
@@ -19,6 +19,7 @@ public enum ErrorCode {
     USER_ACCOUNT_UN_MATCH("사용자와 계좌의 소유주가 다릅니다."),
     ACCOUNT_ALREADY_UNREGISTERED("계좌가 이미 해지되었습니다."),
     BALANCE_NOT_EMPTY("잔액이 있는 계좌는 해지할 수 없습니다."),
+    ACCOUNT_NOT_REGISTERED_YET("해당 시점에는 등록되지 않은 계좌입니다."),
 
     MAX_ACCOUNT_PER_USER_10("사용자 최대 계좌는 10개입니다.");
     private final String description;
@@ -0,0 +1,10 @@
+package com.example.accountsystem.type;
+
+/**
+ * 경합이 심한 계좌를 고르는 기준
+ */
+public enum HotAccountMetric {
+    ATTEMPTS, // lock 시도 횟수
+    FAILURES, // lock 을 얻지 못한 횟수 (ACCOUNT_TRANSACTION_LOCK)
+    WAIT_TIME // lock 을 기다린 시간의 합 (마이크로초)
+}
@@ -0,0 +1,7 @@
+package com.example.accountsystem.type;
+
+public enum JournalRecordType {
+    TRANSACTION, // 거래 (커밋 여부는 뒤에 오는 기록으로 정해진다.)
+    COMMITTED, // 같은 transactionId 의 거래가 커밋되었다.
+    ABORTED // 같은 transactionId 의 거래가 커밋되지 않았다.
+}
@@ -0,0 +1,14 @@
+package com.example.accountsystem.type;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StatementFormat {
+    NDJSON("application/x-ndjson", "ndjson"), // 한 줄에 거래 하나씩 JSON
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+}
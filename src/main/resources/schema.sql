@@ -0,0 +1,3 @@
+-- 계좌번호 블록 번호 (AccountNumberAllocator)
+-- 값 하나가 account.number.block-size 개의 계좌번호를 뜻하므로, 운영 중에는 block-size 를 바꾸지 않는다.
+create sequence if not exists account_number_seq start with 0 minvalue 0 increment by 1;
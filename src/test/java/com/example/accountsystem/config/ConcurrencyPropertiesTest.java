@@ -0,0 +1,55 @@
+package com.example.accountsystem.config;
+
+import com.example.accountsystem.type.ConcurrencyMode;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConcurrencyPropertiesTest {
+    @ParameterizedTest
+    @CsvSource({
+            "PESSIMISTIC, PESSIMISTIC",
+            "BATCHED, PESSIMISTIC",
+            "ATOMIC, ATOMIC",
+            "OPTIMISTIC, ATOMIC",
+            "ATOMIC, OPTIMISTIC",
+            "OPTIMISTIC, OPTIMISTIC",
+            "REDIS, REDIS"
+    })
+    void validate(ConcurrencyMode use, ConcurrencyMode cancel) {
+        // given
+        ConcurrencyProperties concurrencyProperties = properties(use, cancel);
+
+        // when
+        // then
+        assertDoesNotThrow(concurrencyProperties::validate);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "OPTIMISTIC, PESSIMISTIC",
+            "BATCHED, OPTIMISTIC",
+            "PESSIMISTIC, OPTIMISTIC",
+            "ATOMIC, PESSIMISTIC",
+            "BATCHED, ATOMIC",
+            "PESSIMISTIC, BATCHED",
+            "REDIS, PESSIMISTIC"
+    })
+    void failValidate(ConcurrencyMode use, ConcurrencyMode cancel) {
+        // given
+        ConcurrencyProperties concurrencyProperties = properties(use, cancel);
+
+        // when
+        // then
+        assertThrows(IllegalStateException.class, concurrencyProperties::validate);
+    }
+
+    private static ConcurrencyProperties properties(ConcurrencyMode use, ConcurrencyMode cancel) {
+        ConcurrencyProperties concurrencyProperties = new ConcurrencyProperties();
+        concurrencyProperties.setUse(use);
+        concurrencyProperties.setCancel(cancel);
+        return concurrencyProperties;
+    }
+}
@@ -2,10 +2,12 @@ package com.example.accountsystem.controller;
 
 import com.example.accountsystem.domain.Account;
 import com.example.accountsystem.dto.AccountDto;
+import com.example.accountsystem.dto.BalanceDto;
 import com.example.accountsystem.dto.CreateAccount;
 import com.example.accountsystem.dto.DeleteAccount;
 import com.example.accountsystem.exception.AccountException;
 import com.example.accountsystem.service.AccountService;
+import com.example.accountsystem.service.StatementService;
 import com.example.accountsystem.type.AccountStatus;
 import com.example.accountsystem.type.ErrorCode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -15,24 +17,33 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(AccountController.class)
 class AccountControllerTest {
     @MockBean
     private AccountService accountService;
 
+    @MockBean
+    private StatementService statementService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -113,6 +124,71 @@ class AccountControllerTest {
                 .andExpect(jsonPath("$[2].balance").value(3000));
     }
 
+    @Test
+    void successGetBalanceAt() throws Exception {
+        // given
+        given(accountService.getBalanceAt(anyString(), any()))
+                .willReturn(BalanceDto.builder()
+                        .accountNumber("1234567890")
+                        .balance(7000L)
+                        .at(LocalDateTime.of(2026, 3, 1, 12, 0))
+                        .transactionId("transactionId")
+                        .transactedAt(LocalDateTime.of(2026, 3, 1, 11, 0))
+                        .build());
+
+        // when
+        // then
+        mockMvc.perform(get("/account/1234567890/balance")
+                        .param("at", "2026-03-01T12:00:00"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value("1234567890"))
+                .andExpect(jsonPath("$.balance").value(7000))
+                .andExpect(jsonPath("$.transactionId").value("transactionId"));
+        verify(accountService).getBalanceAt("1234567890", LocalDateTime.of(2026, 3, 1, 12, 0));
+    }
+
+    @Test
+    void successGetStatement() throws Exception {
+        // given
+        willAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(4)
+                    .write("{\"transactionId\":\"t1\"}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).given(statementService).writeStatement(anyString(), any(), any(), any(), any());
+
+        // when
+        MvcResult result = mockMvc.perform(get("/account/1234567890/statement")
+                        .param("from", "2026-03-01T00:00:00")
+                        .param("to", "2026-04-01T00:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(content().string("{\"transactionId\":\"t1\"}\n"));
+        verify(statementService).validateStatement("1234567890",
+                LocalDateTime.of(2026, 3, 1, 0, 0), LocalDateTime.of(2026, 4, 1, 0, 0));
+    }
+
+    @Test
+    void failedGetStatement() throws Exception {
+        // given
+        willThrow(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND))
+                .given(statementService).validateStatement(anyString(), any(), any());
+
+        // when
+        // then
+        mockMvc.perform(get("/account/1234567890/statement")
+                        .param("from", "2026-03-01T00:00:00")
+                        .param("to", "2026-04-01T00:00:00")
+                        .param("format", "CSV"))
+                .andDo(print())
+                .andExpect(jsonPath("$.errorCode").value("ACCOUNT_NOT_FOUND"));
+    }
+
     @Test
     void successGetAccount() throws Exception {
         // given
@@ -0,0 +1,210 @@
+package com.example.accountsystem.controller;
+
+import com.example.accountsystem.domain.AccountUser;
+import com.example.accountsystem.repository.AccountRepository;
+import com.example.accountsystem.repository.AccountUserRepository;
+import com.example.accountsystem.service.AccountService;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import static com.example.accountsystem.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 여러 스레드가 컨트롤러(@AccountLock 포함)로 잔액 사용과 사용 취소를 섞어서 보낸 뒤 잔액이 맞는지 확인한다.
+ * 1. 계좌 잔액 = 초기 잔액 - 성공한 사용 금액 + 성공한 취소 금액
+ * 2. 성공한 거래를 순서대로 적용한 잔액이 각 거래의 balanceSnapshot 과 같다.
+ * 스레드 수별 처리량을 출력한다. (./gradlew stressTest 로 실행한다.)
+ */
+@Tag("stress")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "account.transaction.use-delay-ms=0",
+        "spring.jpa.properties.hibernate.show_sql=false"
+})
+class BalanceInvariantStressTest {
+    private static final int ACCOUNTS = Integer.getInteger("stress.accounts", 4); // 적을수록 경쟁이 심하다.
+    private static final int OPERATIONS = Integer.getInteger("stress.operations", 200); // 스레드당 요청 수
+    private static final long INITIAL_BALANCE = 1_000_000_000L;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    static Stream<Integer> threadCounts() {
+        return Arrays.stream(System.getProperty("stress.threads", "1,2,4,8").split(","))
+                .map(String::trim)
+                .map(Integer::valueOf);
+    }
+
+    @ParameterizedTest
+    @MethodSource("threadCounts")
+    void balancesStayConsistent(int threads) throws Exception {
+        // given
+        AccountUser user = accountUserRepository.save(AccountUser.builder().name("stress").build());
+        Map<String, Ledger> ledgers = new LinkedHashMap<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            ledgers.put(accountService.createAccount(user.getId(), INITIAL_BALANCE)
+                    .getAccountNumber(), new Ledger());
+        }
+        List<String> accountNumbers = new ArrayList<>(ledgers.keySet());
+        BlockingQueue<UsedTransaction> cancelTargets = new LinkedBlockingQueue<>();
+        LongAdder lockFailures = new LongAdder();
+        Map<String, LongAdder> unexpectedFailures = new ConcurrentHashMap<>();
+
+        // when
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS; i++) {
+                    UsedTransaction target = random.nextInt(3) == 0 ? cancelTargets.poll() : null;
+                    if (target != null) {
+                        String errorCode = cancel(target, ledgers.get(target.accountNumber));
+                        if (ACCOUNT_TRANSACTION_LOCK.name().equals(errorCode)) {
+                            cancelTargets.offer(target); // 나중에 다시 취소한다.
+                        }
+                        count(errorCode, lockFailures, unexpectedFailures);
+                    } else {
+                        String accountNumber = accountNumbers.get(random.nextInt(ACCOUNTS));
+                        long amount = 10L * random.nextInt(1, 1000);
+                        count(use(user.getId(), accountNumber, amount, ledgers.get(accountNumber),
+                                cancelTargets), lockFailures, unexpectedFailures);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        // then
+        long requests = (long) threads * OPERATIONS;
+        System.out.printf("[stress] threads=%d accounts=%d requests=%d elapsed=%dms " +
+                        "throughput=%.1f req/s lockFailures=%d%n",
+                threads, ACCOUNTS, requests, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                requests / (elapsedNanos / 1e9), lockFailures.sum());
+
+        assertTrue(unexpectedFailures.isEmpty(), "unexpected failures : " + unexpectedFailures);
+        for (Map.Entry<String, Ledger> entry : ledgers.entrySet()) {
+            String accountNumber = entry.getKey();
+            Ledger ledger = entry.getValue();
+            long expectedBalance = INITIAL_BALANCE - ledger.used.get() + ledger.canceled.get();
+
+            assertEquals(expectedBalance, accountRepository.findByAccountNumber(accountNumber)
+                    .orElseThrow().getBalance(), accountNumber);
+            assertSnapshotsReplay(accountNumber, ledger, expectedBalance);
+        }
+    }
+
+    private String use(Long userId, String accountNumber, long amount, Ledger ledger,
+                       BlockingQueue<UsedTransaction> cancelTargets) {
+        JsonNode response = restTemplate.postForObject("/transaction/use", Map.of(
+                "userId", userId, "accountNumber", accountNumber, "amount", amount), JsonNode.class);
+        if (response.hasNonNull("errorCode")) {
+            return response.get("errorCode").asText();
+        }
+
+        ledger.used.addAndGet(amount);
+        ledger.successes.increment();
+        cancelTargets.offer(new UsedTransaction(
+                response.get("transactionId").asText(), accountNumber, amount));
+        return null;
+    }
+
+    private String cancel(UsedTransaction target, Ledger ledger) {
+        JsonNode response = restTemplate.postForObject("/transaction/cancel", Map.of(
+                "transactionId", target.transactionId,
+                "accountNumber", target.accountNumber,
+                "amount", target.amount), JsonNode.class);
+        if (response.hasNonNull("errorCode")) {
+            return response.get("errorCode").asText();
+        }
+
+        ledger.canceled.addAndGet(target.amount);
+        ledger.successes.increment();
+        return null;
+    }
+
+    private static void count(String errorCode, LongAdder lockFailures,
+                              Map<String, LongAdder> unexpectedFailures) {
+        if (errorCode == null) {
+            return;
+        }
+        if (ACCOUNT_TRANSACTION_LOCK.name().equals(errorCode)) {
+            lockFailures.increment();
+        } else {
+            unexpectedFailures.computeIfAbsent(errorCode, key -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * 성공한 거래를 저장된 순서대로 초기 잔액에 적용하면서 각 거래의 balanceSnapshot 과 비교한다.
+     */
+    private void assertSnapshotsReplay(String accountNumber, Ledger ledger, long expectedBalance) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "select t.transaction_type, t.amount, t.balance_snapshot from transaction t " +
+                        "join account a on a.id = t.account_id " +
+                        "where a.account_number = ? and t.transaction_result_type = 'S' " +
+                        "order by t.id", accountNumber);
+
+        long balance = INITIAL_BALANCE;
+        for (Map<String, Object> row : rows) {
+            long amount = ((Number) row.get("AMOUNT")).longValue();
+            balance += "USE".equals(row.get("TRANSACTION_TYPE")) ? -amount : amount;
+            assertEquals(balance, ((Number) row.get("BALANCE_SNAPSHOT")).longValue(),
+                    accountNumber + " snapshot out of order");
+        }
+        assertEquals(ledger.successes.sum(), rows.size(), accountNumber);
+        assertEquals(expectedBalance, balance, accountNumber);
+    }
+
+    private static class Ledger {
+        private final AtomicLong used = new AtomicLong();
+        private final AtomicLong canceled = new AtomicLong();
+        private final LongAdder successes = new LongAdder();
+    }
+
+    private static class UsedTransaction {
+        private final String transactionId;
+        private final String accountNumber;
+        private final long amount;
+
+        private UsedTransaction(String transactionId, String accountNumber, long amount) {
+            this.transactionId = transactionId;
+            this.accountNumber = accountNumber;
+            this.amount = amount;
+        }
+    }
+}
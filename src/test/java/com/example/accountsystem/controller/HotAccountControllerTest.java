@@ -0,0 +1,65 @@
+package com.example.accountsystem.controller;
+
+import com.example.accountsystem.dto.HotAccount;
+import com.example.accountsystem.service.HotAccountDetector;
+import com.example.accountsystem.type.HotAccountMetric;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(HotAccountController.class)
+class HotAccountControllerTest {
+    @MockBean
+    private HotAccountDetector hotAccountDetector;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void successGetHotAccounts() throws Exception {
+        // given
+        given(hotAccountDetector.getHotAccounts(any(), any(), anyInt()))
+                .willReturn(List.of(HotAccount.builder()
+                        .accountNumber("1234567890")
+                        .value(42L)
+                        .maxError(0L)
+                        .build()));
+
+        // when
+        // then
+        mockMvc.perform(get("/admin/hot-accounts")
+                        .param("window", "5m")
+                        .param("by", "WAIT_TIME")
+                        .param("limit", "3"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].accountNumber").value("1234567890"))
+                .andExpect(jsonPath("$[0].value").value(42));
+        verify(hotAccountDetector).getHotAccounts(Duration.ofMinutes(5), HotAccountMetric.WAIT_TIME, 3);
+    }
+
+    @Test
+    void failGetHotAccounts_invalidWindow() throws Exception {
+        // given
+        // when
+        // then
+        mockMvc.perform(get("/admin/hot-accounts")
+                        .param("window", "five minutes"))
+                .andDo(print())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_REQUEST"));
+    }
+}
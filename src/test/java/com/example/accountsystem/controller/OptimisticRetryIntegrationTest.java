@@ -0,0 +1,144 @@
+package com.example.accountsystem.controller;
+
+import com.example.accountsystem.domain.AccountChangedEvent;
+import com.example.accountsystem.repository.AccountRepository;
+import com.example.accountsystem.service.AccountService;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.accountsystem.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 잔액을 바꾼 트랜잭션이 flush 하기 전에 다른 트랜잭션이 같은 계좌의 버전을 올려 실제 버전 충돌을 만든다.
+ * 충돌은 재시도되고, 재시도가 모두 충돌하면 500 이 아닌 ACCOUNT_TRANSACTION_LOCK 으로 끝나야 한다.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:optimistic-retry",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "account.lock.provider=in-process",
+        "account.transaction.use-delay-ms=0",
+        "account.concurrency.use=optimistic",
+        "account.concurrency.cancel=optimistic",
+        "account.concurrency.optimistic.max-attempts=3"
+})
+class OptimisticRetryIntegrationTest {
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ConcurrentWriter concurrentWriter;
+
+    @AfterEach
+    void tearDown() {
+        concurrentWriter.stop();
+    }
+
+    @Test
+    void retryOnVersionConflict() {
+        // given
+        String accountNumber = accountService.createAccount(1L, 10000L).getAccountNumber();
+        concurrentWriter.conflict(accountNumber, 1);
+
+        // when
+        JsonNode response = use(accountNumber, 1000L);
+
+        // then
+        assertFalse(response.hasNonNull("errorCode"), response.toString());
+        assertEquals(2, concurrentWriter.attempts.get());
+        assertEquals(9000L, accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow().getBalance());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from transaction t join account a on a.id = t.account_id " +
+                        "where a.account_number = ?", Integer.class, accountNumber));
+    }
+
+    @Test
+    void retryExhausted() {
+        // given
+        String accountNumber = accountService.createAccount(1L, 10000L).getAccountNumber();
+        concurrentWriter.conflict(accountNumber, Integer.MAX_VALUE);
+
+        // when
+        JsonNode response = use(accountNumber, 1000L);
+
+        // then
+        assertEquals(ACCOUNT_TRANSACTION_LOCK.name(), response.get("errorCode").asText());
+        assertEquals(3, concurrentWriter.attempts.get());
+        assertEquals(10000L, accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow().getBalance());
+    }
+
+    private JsonNode use(String accountNumber, long amount) {
+        return restTemplate.postForObject("/transaction/use", Map.of(
+                "userId", 1L, "accountNumber", accountNumber, "amount", amount), JsonNode.class);
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        ConcurrentWriter concurrentWriter(JdbcTemplate jdbcTemplate) {
+            return new ConcurrentWriter(jdbcTemplate);
+        }
+    }
+
+    /**
+     * 잔액을 바꾼 뒤(flush 전)에 발행되는 이벤트를 받아 다른 커넥션에서 버전을 올리고 커밋한다.
+     */
+    static class ConcurrentWriter {
+        private final JdbcTemplate jdbcTemplate;
+        private final AtomicInteger attempts = new AtomicInteger();
+        private volatile String accountNumber;
+        private volatile int conflicts;
+
+        ConcurrentWriter(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        void conflict(String accountNumber, int conflicts) {
+            this.attempts.set(0);
+            this.conflicts = conflicts;
+            this.accountNumber = accountNumber;
+        }
+
+        void stop() {
+            this.accountNumber = null;
+        }
+
+        @EventListener
+        public void onAccountChanged(AccountChangedEvent event) {
+            String target = accountNumber;
+            if (target == null || !target.equals(event.getAccount().getAccountNumber())) {
+                return;
+            }
+            if (attempts.incrementAndGet() > conflicts) {
+                return;
+            }
+
+            CompletableFuture.runAsync(() -> jdbcTemplate.update(
+                    "update account set version = version + 1 where account_number = ?",
+                    target)).join();
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package com.example.accountsystem.controller;
 
+import com.example.accountsystem.config.ConcurrencyProperties;
 import com.example.accountsystem.dto.CancelBalance;
 import com.example.accountsystem.dto.TransactionDto;
+import com.example.accountsystem.dto.TransactionOutcome;
+import com.example.accountsystem.dto.TransactionPage;
 import com.example.accountsystem.dto.UseBalance;
+import com.example.accountsystem.dto.UseBalanceBatch;
+import com.example.accountsystem.exception.AccountException;
+import com.example.accountsystem.service.FailedTransactionRecorder;
+import com.example.accountsystem.service.RedisBalanceService;
 import com.example.accountsystem.service.TransactionService;
+import com.example.accountsystem.service.UseBalanceBatcher;
+import com.example.accountsystem.type.ConcurrencyMode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,13 +22,21 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+import static com.example.accountsystem.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
 import static com.example.accountsystem.type.TransactionResultType.S;
 import static com.example.accountsystem.type.TransactionType.USE;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -31,6 +48,18 @@ class TransactionControllerTest {
     @MockBean
     private TransactionService transactionService;
 
+    @MockBean
+    private UseBalanceBatcher useBalanceBatcher;
+
+    @MockBean
+    private ConcurrencyProperties concurrencyProperties;
+
+    @MockBean
+    private FailedTransactionRecorder failedTransactionRecorder;
+
+    @MockBean
+    private RedisBalanceService redisBalanceService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -64,6 +93,68 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.amount").value(12345));
     }
 
+    @Test
+    void successUseBalance_batched() throws Exception {
+        // given
+        given(concurrencyProperties.getUse()).willReturn(ConcurrencyMode.BATCHED);
+        given(useBalanceBatcher.useBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(TransactionDto.builder()
+                        .accountNumber("1000000000")
+                        .transactionResultType(S)
+                        .amount(12345L)
+                        .transactionId("transactionIdForBatch")
+                        .transactedAt(LocalDateTime.now())
+                        .build());
+
+        // when
+        // then
+        mockMvc.perform(post("/transaction/use")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UseBalance.Request(1L, "2000000000", 3000L)
+                        ))
+                ).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionResult").value("S"))
+                .andExpect(jsonPath("$.transactionId").value("transactionIdForBatch"));
+        verify(transactionService, never()).useBalance(anyLong(), anyString(), anyLong());
+    }
+
+    @Test
+    void successUseBalances() throws Exception {
+        // given
+        given(useBalanceBatcher.useBalances(anyList()))
+                .willReturn(List.of(
+                        TransactionOutcome.success(TransactionDto.builder()
+                                .accountNumber("1000000000")
+                                .transactionResultType(S)
+                                .amount(1000L)
+                                .transactionId("transactionId")
+                                .transactedAt(LocalDateTime.now())
+                                .build()),
+                        TransactionOutcome.failure(
+                                new AccountException(AMOUNT_EXCEED_BALANCE))));
+
+        // when
+        // then
+        mockMvc.perform(post("/transaction/use/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UseBalanceBatch.Request(List.of(
+                                        new UseBalance.Request(1L, "1000000000", 1000L),
+                                        new UseBalance.Request(1L, "1000000000", 9000L)))
+                        ))
+                ).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].transactionResult").value("S"))
+                .andExpect(jsonPath("$.results[0].transactionId").value("transactionId"))
+                .andExpect(jsonPath("$.results[1].transactionResult").value("F"))
+                .andExpect(jsonPath("$.results[1].amount").value(9000))
+                .andExpect(jsonPath("$.results[1].errorCode").value("AMOUNT_EXCEED_BALANCE"));
+        verify(failedTransactionRecorder).record(argThat(failed ->
+                failed.getTransactionType() == USE && failed.getAmount() == 9000L));
+    }
+
     @Test
     void successCancelBalance() throws Exception {
         // given
@@ -92,6 +183,38 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.amount").value(54321));
     }
 
+    @Test
+    void successQueryTransactions() throws Exception {
+        // given
+        given(transactionService.queryTransactions(anyString(), any(), anyInt(), any(), any()))
+                .willReturn(TransactionPage.builder()
+                        .transactions(List.of(TransactionDto.builder()
+                                .accountNumber("1000000000")
+                                .transactionType(USE)
+                                .transactionResultType(S)
+                                .amount(1000L)
+                                .transactionId("transactionId")
+                                .transactedAt(LocalDateTime.now())
+                                .build()))
+                        .next("cursor")
+                        .build());
+
+        // when
+        // then
+        mockMvc.perform(get("/transaction")
+                        .param("account_number", "1000000000")
+                        .param("after", "previous")
+                        .param("limit", "1")
+                        .param("type", "USE")
+                        .param("result", "S"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions[0].transactionId").value("transactionId"))
+                .andExpect(jsonPath("$.transactions[0].transactionType").value("USE"))
+                .andExpect(jsonPath("$.next").value("cursor"));
+        verify(transactionService).queryTransactions("1000000000", "previous", 1, USE, S);
+    }
+
     @Test
     void successQueryTransaction() throws Exception {
         // given
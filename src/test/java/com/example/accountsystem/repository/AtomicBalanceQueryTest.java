@@ -0,0 +1,79 @@
+package com.example.accountsystem.repository;
+
+import com.example.accountsystem.domain.Account;
+import com.example.accountsystem.domain.AccountUser;
+import com.example.accountsystem.type.AccountStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * lock 없이 잔액을 바꾸는 조건부 UPDATE (ATOMIC 모드)
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.show_sql=false")
+class AtomicBalanceQueryTest {
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @BeforeEach
+    void setUp() {
+        AccountUser user = entityManager.find(AccountUser.class, 1L); // data.sql 의 사용자
+        entityManager.persist(Account.builder()
+                .accountUser(user)
+                .accountNumber("1000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .registeredAt(LocalDateTime.now())
+                .build());
+        entityManager.persist(Account.builder()
+                .accountUser(user)
+                .accountNumber("1000000001")
+                .accountStatus(AccountStatus.UNREGISTERED)
+                .balance(10000L)
+                .registeredAt(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+    }
+
+    @Test
+    void useBalanceIfSufficient() {
+        // given
+        // when
+        Optional<Long> balance = accountRepository.useBalanceIfSufficient("1000000000", 3000L);
+
+        // then
+        assertEquals(Optional.of(7000L), balance);
+        assertEquals(Optional.of(7000L), accountRepository.findBalanceByAccountNumber("1000000000"));
+    }
+
+    @Test
+    void useBalanceIfSufficient_notChanged() {
+        // given
+        // when
+        // then
+        assertEquals(Optional.empty(), accountRepository.useBalanceIfSufficient("1000000000", 20000L));
+        assertEquals(Optional.empty(), accountRepository.useBalanceIfSufficient("1000000001", 1000L));
+        assertEquals(Optional.of(10000L), accountRepository.findBalanceByAccountNumber("1000000000"));
+    }
+
+    @Test
+    void cancelBalance() {
+        // given
+        // when
+        Optional<Long> balance = accountRepository.cancelBalance("1000000000", 3000L);
+
+        // then
+        assertEquals(Optional.of(13000L), balance);
+        assertEquals(Optional.empty(), accountRepository.cancelBalance("9999999999", 3000L));
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.accountsystem.repository;
+
+import com.example.accountsystem.domain.Account;
+import com.example.accountsystem.domain.AccountUser;
+import com.example.accountsystem.type.AccountStatus;
+import com.example.accountsystem.type.TransactionResultType;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 거래 백만 건을 넣은 뒤 조회 쿼리의 실행 계획(EXPLAIN)에 인덱스가 쓰이는지 확인한다.
+ * 적재가 오래 걸리므로 ./gradlew slowTest 로 따로 실행한다.
+ */
+@Tag("slow")
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.example.accountsystem.repository.IndexUsageTest$SqlCapture"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class IndexUsageTest {
+    private static final int TRANSACTIONS = 1_000_000;
+    private static final int ACCOUNTS = TRANSACTIONS / 10;
+    private static final int USERS = ACCOUNTS / 10;
+    private static final int CHUNK = 100_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @BeforeAll
+    void loadRows() {
+        jdbcTemplate.execute("set referential_integrity false"); // 대량 적재 중에는 외래 키 검사를 끈다.
+        jdbcTemplate.update("insert into account_user(id, name, created_at, updated_at) " +
+                "select x + 100, 'user' || x, now(), now() from system_range(1, " + USERS + ")");
+        jdbcTemplate.update("insert into account(id, account_number, account_status, " +
+                "balance, version, account_user_id, registered_at, created_at, updated_at) " +
+                "select x, cast(1000000000 + x as varchar), 'IN_USE', 10000, 0, " +
+                "mod(x, " + USERS + ") + 101, now(), now(), now() " +
+                "from system_range(1, " + ACCOUNTS + ")");
+        for (int from = 1; from <= TRANSACTIONS; from += CHUNK) { // 한 번에 넣으면 느려서 나눠 넣는다.
+            String range = "system_range(" + from + ", " + (from + CHUNK - 1) + ")";
+            jdbcTemplate.update("insert into transaction(id, transaction_id, transaction_type, " +
+                    "transaction_result_type, account_id, amount, balance_snapshot, " +
+                    "transacted_at, created_at, updated_at) " +
+                    "select x, lpad(cast(x as varchar), 32, '0'), 'USE', 'S', " +
+                    "mod(x, " + ACCOUNTS + ") + 1, 1000, 9000, " +
+                    "timestamp '2026-01-01 00:00:00' + x * interval '1' second, now(), now() " +
+                    "from " + range);
+        }
+        jdbcTemplate.execute("set referential_integrity true");
+        // 직접 넣은 id 와 겹치지 않게 JPA 가 쓰는 시퀀스를 넘긴다.
+        jdbcTemplate.execute("alter sequence hibernate_sequence restart with " + (TRANSACTIONS + 1));
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Test
+    void findByAccountNumber_usesAccountNumberIndex() {
+        // given
+        SqlCapture.clear();
+
+        // when
+        assertTrue(accountRepository.findByAccountNumber("1000050000").isPresent());
+
+        // then
+        String plan = explain(SqlCapture.firstSelect(), "1000050000");
+        assertTrue(plan.contains("UX_ACCOUNT_ACCOUNT_NUMBER"), plan);
+    }
+
+    @Test
+    void countByAccountUser_usesAccountUserIndex() {
+        // given
+        AccountUser accountUser = accountUserRepository.findById(500L).get();
+        SqlCapture.clear();
+
+        // when
+        assertEquals(10, accountRepository.countByAccountUser(accountUser));
+
+        // then
+        String plan = explain(SqlCapture.firstSelect(), 500L);
+        assertTrue(plan.contains("IX_ACCOUNT_ACCOUNT_USER_ID"), plan);
+    }
+
+    @Test
+    void findByTransactionId_usesTransactionIdIndex() {
+        // given
+        String transactionId = String.format("%032d", 500000);
+        SqlCapture.clear();
+
+        // when
+        assertTrue(transactionRepository.findByTransactionId(transactionId).isPresent());
+
+        // then
+        String plan = explain(SqlCapture.firstSelect(), transactionId);
+        assertTrue(plan.contains("UX_TRANSACTION_TRANSACTION_ID"), plan);
+    }
+
+    @Test
+    void transactionsOfAccount_usesAccountTransactedAtIndex() {
+        // when
+        String plan = explain("select * from transaction where account_id = ? " +
+                "and transacted_at >= ? order by transacted_at limit 20",
+                500L, LocalDateTime.of(2026, 1, 1, 0, 0));
+
+        // then
+        assertTrue(plan.contains("IX_TRANSACTION_ACCOUNT_ID_TRANSACTED_AT"), plan);
+    }
+
+    @Test
+    void lastSuccessAtOrBefore_usesAccountTransactedAtIndex() {
+        // given
+        Account account = accountRepository.findById(500L).get();
+        LocalDateTime at = LocalDateTime.of(2026, 1, 5, 0, 0);
+        SqlCapture.clear();
+
+        // when
+        assertTrue(transactionRepository
+                .findFirstByAccountAndTransactionResultTypeAndTransactedAtLessThanEqualOrderByTransactedAtDescIdDesc(
+                        account, TransactionResultType.S, at)
+                .isPresent());
+
+        // then
+        String plan = explain(SqlCapture.firstSelect(), 500L, "S", at, 1);
+        assertTrue(plan.contains("IX_TRANSACTION_ACCOUNT_ID_TRANSACTED_AT"), plan);
+    }
+
+    @Test
+    void pageAfter_usesAccountTransactedAtIndex() {
+        // given
+        Account account = accountRepository.findById(500L).get();
+        LocalDateTime at = LocalDateTime.of(2026, 1, 10, 0, 0);
+        SqlCapture.clear();
+
+        // when
+        assertFalse(transactionRepository.findPageAfter(account, at, 700000L,
+                null, null, PageRequest.of(0, 20)).isEmpty());
+
+        // then
+        String plan = explain(SqlCapture.firstSelect(), 500L, at, at, 700000L,
+                null, null, null, null, 20);
+        assertTrue(plan.contains("IX_TRANSACTION_ACCOUNT_ID_TRANSACTED_AT"), plan);
+    }
+
+    @Test
+    void saveDuplicateAccountNumber_fails() {
+        // given
+        Account account = Account.builder()
+                .accountUser(accountUserRepository.findById(1L).get())
+                .accountNumber("1000000001")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(0L)
+                .build();
+
+        // when
+        DataIntegrityViolationException exception = assertThrows(
+                DataIntegrityViolationException.class,
+                () -> accountRepository.saveAndFlush(account));
+
+        // then
+        String message = exception.getMostSpecificCause().getMessage();
+        assertTrue(message.contains("UX_ACCOUNT_ACCOUNT_NUMBER"), message);
+    }
+
+    private String explain(String sql, Object... args) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class, args);
+    }
+
+    /**
+     * Hibernate 가 실행하는 SQL 을 모아둔다.
+     */
+    public static class SqlCapture implements StatementInspector {
+        private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        static void clear() {
+            statements.clear();
+        }
+
+        static String firstSelect() {
+            for (String statement : statements) {
+                if (statement.trim().toLowerCase().startsWith("select")) {
+                    return statement;
+                }
+            }
+            throw new IllegalStateException("No select statement captured");
+        }
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.example.accountsystem.repository;
+
+import com.example.accountsystem.domain.Account;
+import com.example.accountsystem.domain.AccountUser;
+import com.example.accountsystem.domain.Transaction;
+import com.example.accountsystem.dto.LedgerBalance;
+import com.example.accountsystem.type.AccountStatus;
+import com.example.accountsystem.type.TransactionResultType;
+import com.example.accountsystem.type.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+
+import static com.example.accountsystem.type.TransactionResultType.F;
+import static com.example.accountsystem.type.TransactionResultType.S;
+import static com.example.accountsystem.type.TransactionType.CANCEL;
+import static com.example.accountsystem.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 스냅샷 이후의 거래로 잔액을 계산하는 쿼리
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.show_sql=false")
+class LedgerQueryTest {
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Account account;
+    private Account otherAccount;
+
+    @BeforeEach
+    void setUp() {
+        AccountUser user = entityManager.find(AccountUser.class, 1L); // data.sql 의 사용자
+        account = entityManager.persist(Account.builder()
+                .accountUser(user)
+                .accountNumber("1000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .registeredAt(LocalDateTime.now())
+                .build());
+        otherAccount = entityManager.persist(Account.builder()
+                .accountUser(user)
+                .accountNumber("1000000001")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .registeredAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    void sumAmountsAfter() {
+        // given
+        Transaction first = persist(account, USE, S, 1000L, "1");
+        persist(account, USE, S, 2000L, "2");
+        persist(account, USE, F, 5000L, "3"); // 실패한 거래는 잔액에 반영하지 않는다.
+        persist(account, CANCEL, S, 500L, "4");
+        persist(otherAccount, USE, S, 3000L, "5");
+        entityManager.flush();
+
+        // when
+        LedgerBalance all = transactionRepository.sumAmountsAfter(account, 0L);
+        LedgerBalance tail = transactionRepository.sumAmountsAfter(account, first.getId());
+
+        // then
+        assertEquals(-2500L, all.getBalance());
+        assertEquals(3L, all.getEventCount());
+        assertEquals(-1500L, tail.getBalance());
+        assertEquals(2L, tail.getEventCount());
+    }
+
+    @Test
+    void sumAmountsAfter_noTransactions() {
+        // given
+        // when
+        LedgerBalance ledgerBalance = transactionRepository.sumAmountsAfter(account, 0L);
+
+        // then
+        assertEquals(0L, ledgerBalance.getBalance());
+        assertEquals(0L, ledgerBalance.getEventCount());
+    }
+
+    @Test
+    void findLastIdByAccount() {
+        // given
+        persist(account, USE, S, 1000L, "1");
+        Transaction last = persist(account, USE, F, 1000L, "2");
+        persist(otherAccount, USE, S, 1000L, "3");
+        entityManager.flush();
+
+        // when
+        // then
+        assertEquals(last.getId(), transactionRepository.findLastIdByAccount(account));
+        assertEquals(0L, transactionRepository.findLastIdByAccount(
+                entityManager.persist(Account.builder()
+                        .accountNumber("1000000002")
+                        .accountStatus(AccountStatus.IN_USE)
+                        .balance(0L)
+                        .build())));
+    }
+
+    private Transaction persist(Account account, TransactionType transactionType,
+                                TransactionResultType transactionResultType,
+                                Long amount, String transactionId) {
+        return entityManager.persist(Transaction.builder()
+                .account(account)
+                .transactionType(transactionType)
+                .transactionResultType(transactionResultType)
+                .amount(amount)
+                .balanceSnapshot(0L)
+                .transactionId(transactionId)
+                .transactedAt(LocalDateTime.now())
+                .build());
+    }
+}
\ No newline at end of file
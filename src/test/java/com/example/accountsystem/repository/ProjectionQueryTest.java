@@ -0,0 +1,161 @@
+package com.example.accountsystem.repository;
+
+import com.example.accountsystem.domain.Account;
+import com.example.accountsystem.domain.AccountUser;
+import com.example.accountsystem.domain.Transaction;
+import com.example.accountsystem.dto.AccountDto;
+import com.example.accountsystem.dto.TransactionDto;
+import com.example.accountsystem.type.AccountStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.accountsystem.type.TransactionResultType.S;
+import static com.example.accountsystem.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 조회 쿼리가 연관 엔티티를 추가로 읽지 않고 한 번의 SQL 로 끝나는지 확인한다.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ProjectionQueryTest {
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private AccountUser user;
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.find(AccountUser.class, 1L); // data.sql 의 사용자
+        account = entityManager.persist(Account.builder()
+                .accountUser(user)
+                .accountNumber("1000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(9000L)
+                .registeredAt(LocalDateTime.now())
+                .build());
+        entityManager.persist(Account.builder()
+                .accountUser(user)
+                .accountNumber("1000000001")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(2000L)
+                .registeredAt(LocalDateTime.now())
+                .build());
+        entityManager.persist(Transaction.builder()
+                .account(account)
+                .transactionType(USE)
+                .transactionResultType(S)
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactionId("transactionId")
+                .transactedAt(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    @Test
+    void findDtoByTransactionId() {
+        // when
+        TransactionDto transactionDto =
+                transactionRepository.findDtoByTransactionId("transactionId").get();
+
+        // then
+        assertEquals("1000000000", transactionDto.getAccountNumber());
+        assertEquals(USE, transactionDto.getTransactionType());
+        assertEquals(1000L, transactionDto.getAmount());
+        assertEquals(9000L, transactionDto.getBalanceSnapshot());
+        assertEquals(1, statistics().getPrepareStatementCount());
+        assertEquals(0, statistics().getEntityLoadCount());
+    }
+
+    @Test
+    void findDtosByUserId() {
+        // when
+        List<AccountDto> accountDtos = accountRepository.findDtosByUserId(user.getId());
+
+        // then
+        assertEquals(2, accountDtos.size());
+        assertEquals(user.getId(), accountDtos.get(0).getUserId());
+        assertEquals("1000000000", accountDtos.get(0).getAccountNumber());
+        assertEquals(2000L, accountDtos.get(1).getBalance());
+        assertEquals(1, statistics().getPrepareStatementCount());
+        assertEquals(0, statistics().getEntityLoadCount());
+    }
+
+    @Test
+    void findDtosByUserId_NoAccount() {
+        // when
+        List<AccountDto> accountDtos = accountRepository.findDtosByUserId(2L);
+
+        // then
+        assertEquals(1, accountDtos.size());
+        assertNull(accountDtos.get(0).getAccountNumber());
+    }
+
+    @Test
+    void findDtosByUserId_UserNotFound() {
+        // when
+        List<AccountDto> accountDtos = accountRepository.findDtosByUserId(-1L);
+
+        // then
+        assertTrue(accountDtos.isEmpty());
+    }
+
+    @Test
+    void findWithAccountUserById() {
+        // when
+        Account found = accountRepository.findWithAccountUserById(account.getId()).get();
+
+        // then
+        assertEquals("Pororo", found.getAccountUser().getName());
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void findWithAccountByTransactionIdAndAccountNumber() {
+        // when
+        Transaction transaction = transactionRepository
+                .findWithAccountByTransactionIdAndAccountNumber("transactionId", "1000000000")
+                .get();
+
+        // then
+        assertEquals(9000L, transaction.getAccount().getBalance());
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void findWithAccountByTransactionIdAndAccountNumber_AccountUnMatch() {
+        // when
+        // then
+        assertTrue(transactionRepository
+                .findWithAccountByTransactionIdAndAccountNumber("transactionId", "1000000001")
+                .isEmpty());
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.example.accountsystem.repository;
+
+import com.example.accountsystem.domain.Account;
+import com.example.accountsystem.domain.AccountUser;
+import com.example.accountsystem.domain.Transaction;
+import com.example.accountsystem.type.AccountStatus;
+import com.example.accountsystem.type.TransactionResultType;
+import com.example.accountsystem.type.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.example.accountsystem.type.TransactionResultType.F;
+import static com.example.accountsystem.type.TransactionResultType.S;
+import static com.example.accountsystem.type.TransactionType.CANCEL;
+import static com.example.accountsystem.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 거래 내역을 cursor 로 이어서 조회하는 쿼리
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.show_sql=false")
+class TransactionPageQueryTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        AccountUser user = entityManager.find(AccountUser.class, 1L); // data.sql 의 사용자
+        account = entityManager.persist(Account.builder()
+                .accountUser(user)
+                .accountNumber("1000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .registeredAt(BASE)
+                .build());
+        Account otherAccount = entityManager.persist(Account.builder()
+                .accountUser(user)
+                .accountNumber("1000000001")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .registeredAt(BASE)
+                .build());
+
+        // 같은 거래일시가 여러 건 있어도 id 로 순서를 정한다.
+        persist(account, USE, S, BASE.plusMinutes(1), "1");
+        persist(account, USE, F, BASE.plusMinutes(2), "2");
+        persist(account, CANCEL, S, BASE.plusMinutes(2), "3");
+        persist(account, USE, S, BASE.plusMinutes(2), "4");
+        persist(account, USE, S, BASE.plusMinutes(3), "5");
+        persist(otherAccount, USE, S, BASE.plusMinutes(2), "6");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void walkAllPages() {
+        // given
+        List<String> transactionIds = new ArrayList<>();
+
+        // when
+        List<Transaction> page = transactionRepository.findPage(account,
+                null, null, PageRequest.of(0, 2));
+        while (!page.isEmpty()) {
+            page.forEach(transaction -> transactionIds.add(transaction.getTransactionId()));
+            Transaction last = page.get(page.size() - 1);
+            page = transactionRepository.findPageAfter(account,
+                    last.getTransactedAt(), last.getId(), null, null, PageRequest.of(0, 2));
+        }
+
+        // then
+        assertEquals(List.of("5", "4", "3", "2", "1"), transactionIds);
+    }
+
+    @Test
+    void filterByTypeAndResult() {
+        // given
+        // when
+        List<Transaction> uses = transactionRepository.findPage(account,
+                USE, S, PageRequest.of(0, 10));
+        List<Transaction> failed = transactionRepository.findPage(account,
+                null, F, PageRequest.of(0, 10));
+
+        // then
+        assertEquals(List.of("5", "4", "1"), transactionIds(uses));
+        assertEquals(List.of("2"), transactionIds(failed));
+    }
+
+    private List<String> transactionIds(List<Transaction> transactions) {
+        return transactions.stream()
+                .map(Transaction::getTransactionId)
+                .collect(Collectors.toList());
+    }
+
+    private void persist(Account account, TransactionType transactionType,
+                         TransactionResultType transactionResultType,
+                         LocalDateTime transactedAt, String transactionId) {
+        entityManager.persist(Transaction.builder()
+                .account(account)
+                .transactionType(transactionType)
+                .transactionResultType(transactionResultType)
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactionId(transactionId)
+                .transactedAt(transactedAt)
+                .build());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,179 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.domain.Account;
+import com.example.accountsystem.domain.AccountChangedEvent;
+import com.example.accountsystem.domain.AccountUser;
+import com.example.accountsystem.dto.AccountDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountListCacheTest {
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RTopic topic;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AccountListCache accountListCache;
+
+    private AccountUser user;
+
+    @BeforeEach
+    void setUp() {
+        given(redissonClient.getTopic(anyString(), any())).willReturn(topic);
+        accountListCache = new AccountListCache(1024 * 1024, meterRegistry, redissonClient);
+        accountListCache.subscribe();
+
+        user = AccountUser.builder().name("Pobi").build();
+        user.setId(12L);
+    }
+
+    @Test
+    void getFromCache() {
+        // given
+        AtomicInteger loads = new AtomicInteger();
+
+        // when
+        accountListCache.get(12L, userId -> {
+            loads.incrementAndGet();
+            return List.of(dto("1000000012", 1000L, 0L));
+        });
+        List<AccountDto> result = accountListCache.get(12L, userId -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        // then
+        assertEquals(1, loads.get());
+        assertEquals("1000000012", result.get(0).getAccountNumber());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", AccountListCache.NAME).tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("변경된 계좌를 캐시에 반영")
+    void writeThrough() {
+        // given
+        accountListCache.get(12L, userId -> List.of(
+                dto("1000000012", 1000L, 0L),
+                dto("1000000013", 2000L, 0L)));
+
+        // when
+        accountListCache.onAccountChanged(
+                AccountChangedEvent.changed(account("1000000013", 1800L, 1L)));
+
+        // then
+        List<AccountDto> result = accountListCache.get(12L, this::failToLoad);
+        assertEquals(1000L, result.get(0).getBalance());
+        assertEquals(1800L, result.get(1).getBalance());
+        verify(topic).publish(anyString());
+    }
+
+    @Test
+    @DisplayName("늦게 도착한 이전 버전은 무시")
+    void writeThrough_olderVersion() {
+        // given
+        accountListCache.get(12L, userId -> List.of(dto("1000000012", 800L, 2L)));
+
+        // when
+        accountListCache.onAccountChanged(
+                AccountChangedEvent.changed(account("1000000012", 900L, 1L)));
+
+        // then
+        assertEquals(800L, accountListCache.get(12L, this::failToLoad).get(0).getBalance());
+    }
+
+    @Test
+    @DisplayName("새로 만든 계좌는 목록 끝에 추가")
+    void writeThrough_newAccount() {
+        // given
+        accountListCache.get(12L, userId -> List.of(dto("1000000012", 1000L, 0L)));
+
+        // when
+        accountListCache.onAccountChanged(
+                AccountChangedEvent.changed(account("1000000013", 500L, 0L)));
+
+        // then
+        List<AccountDto> result = accountListCache.get(12L, this::failToLoad);
+        assertEquals(2, result.size());
+        assertEquals("1000000013", result.get(1).getAccountNumber());
+    }
+
+    @Test
+    @DisplayName("DB 에서 바로 바뀐 계좌는 캐시에서 제거")
+    void evictStale() {
+        // given
+        accountListCache.get(12L, userId -> List.of(dto("1000000012", 1000L, 0L)));
+
+        // when
+        accountListCache.onAccountChanged(
+                AccountChangedEvent.changedInDatabase(account("1000000012", 1000L, 0L)));
+
+        // then
+        List<AccountDto> result = accountListCache.get(12L,
+                userId -> List.of(dto("1000000012", 800L, 1L)));
+        assertEquals(800L, result.get(0).getBalance());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("다른 서버에서 바뀐 사용자는 캐시에서 제거")
+    void evictOnMessage() {
+        // given
+        accountListCache.get(12L, userId -> List.of(dto("1000000012", 1000L, 0L)));
+        ArgumentCaptor<MessageListener<String>> captor =
+                ArgumentCaptor.forClass(MessageListener.class);
+        verify(topic).addListener(eq(String.class), captor.capture());
+
+        // when
+        captor.getValue().onMessage("account-list-cache-invalidation", "other-instance:12");
+
+        // then
+        List<AccountDto> result = accountListCache.get(12L, userId -> new ArrayList<>());
+        assertTrue(result.isEmpty());
+    }
+
+    private List<AccountDto> failToLoad(Long userId) {
+        throw new AssertionError("expected cache hit");
+    }
+
+    private AccountDto dto(String accountNumber, Long balance, Long version) {
+        return AccountDto.builder()
+                .userId(12L)
+                .accountNumber(accountNumber)
+                .balance(balance)
+                .version(version).build();
+    }
+
+    private Account account(String accountNumber, Long balance, Long version) {
+        return Account.builder()
+                .accountUser(user)
+                .accountNumber(accountNumber)
+                .balance(balance)
+                .version(version).build();
+    }
+}
\ No newline at end of file
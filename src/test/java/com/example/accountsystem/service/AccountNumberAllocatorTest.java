@@ -0,0 +1,94 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountNumberAllocatorTest {
+    @Mock
+    private AccountRepository accountRepository;
+
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @BeforeEach
+    void setUp() {
+        accountNumberAllocator = new AccountNumberAllocator(accountRepository, 10);
+    }
+
+    @Test
+    void allocateFirstAccountNumber() {
+        // given
+        given(accountRepository.nextAccountNumberBlock())
+                .willReturn(0L); // 계좌가 없는 상태
+
+        // when
+        String accountNumber = accountNumberAllocator.allocate();
+
+        // then
+        assertEquals("1000000000", accountNumber);
+    }
+
+    @Test
+    void allocateFromNextBlock() {
+        // given
+        given(accountRepository.nextAccountNumberBlock())
+                .willReturn(3L, 7L);
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            assertEquals(String.valueOf(1000000030L + i), accountNumberAllocator.allocate());
+        }
+        String accountNumber = accountNumberAllocator.allocate();
+
+        // then
+        assertEquals("1000000070", accountNumber);
+        verify(accountRepository, times(2)).nextAccountNumberBlock();
+    }
+
+    @Test
+    void allocateConcurrently() throws InterruptedException {
+        // given
+        AtomicLong sequence = new AtomicLong();
+        given(accountRepository.nextAccountNumberBlock())
+                .willAnswer(invocation -> sequence.getAndIncrement());
+
+        int threads = 8;
+        int perThread = 1000;
+        Set<String> accountNumbers = ConcurrentHashMap.newKeySet();
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        // when
+        for (int i = 0; i < threads; i++) {
+            executorService.submit(() -> {
+                for (int j = 0; j < perThread; j++) {
+                    accountNumbers.add(accountNumberAllocator.allocate());
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executorService.shutdown();
+
+        // then
+        assertEquals(threads * perThread, accountNumbers.size());
+        assertEquals(threads * perThread / 10, sequence.get()); // 블록을 건너뛰지 않는다.
+    }
+}
\ No newline at end of file
@@ -1,25 +1,35 @@
 package com.example.accountsystem.service;
 
 import com.example.accountsystem.domain.Account;
+import com.example.accountsystem.domain.AccountChangedEvent;
 import com.example.accountsystem.domain.AccountUser;
+import com.example.accountsystem.domain.Transaction;
 import com.example.accountsystem.dto.AccountDto;
+import com.example.accountsystem.dto.BalanceDto;
 import com.example.accountsystem.exception.AccountException;
 import com.example.accountsystem.repository.AccountRepository;
 import com.example.accountsystem.repository.AccountUserRepository;
+import com.example.accountsystem.repository.TransactionRepository;
 import com.example.accountsystem.type.AccountStatus;
 import com.example.accountsystem.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
+import static com.example.accountsystem.type.TransactionResultType.S;
+import static com.example.accountsystem.type.TransactionType.USE;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
@@ -36,6 +46,25 @@ class AccountServiceTest {
     @Mock
     private AccountUserRepository accountUserRepository;
 
+    @Mock
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Spy
+    private AccountListCache accountListCache =
+            new AccountListCache(1024 * 1024, new SimpleMeterRegistry(), null);
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    private RedisBalanceService redisBalanceService;
+
+    @Mock
+    private LedgerBalanceService ledgerBalanceService;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
     @InjectMocks
     private AccountService accountService;
 
@@ -47,9 +76,8 @@ class AccountServiceTest {
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(user));
 
-        given(accountRepository.findFirstByOrderByIdDesc())
-                .willReturn(Optional.of(Account.builder()
-                                .accountNumber("1000000012").build()));
+        given(accountNumberAllocator.allocate())
+                .willReturn("1000000013");
 
         given(accountRepository.save(any()))
                 .willReturn((Account.builder()
@@ -67,33 +95,6 @@ class AccountServiceTest {
         assertEquals("1000000013", captor.getValue().getAccountNumber());
     }
 
-    @Test
-    void createFirstAccount() {
-        // given
-        AccountUser user = AccountUser.builder().name("Pobi").build();
-        user.setId(15L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user));
-
-        given(accountRepository.findFirstByOrderByIdDesc())
-                .willReturn(Optional.empty()); // 계좌가 없는 상태
-
-        given(accountRepository.save(any()))
-                .willReturn((Account.builder()
-                        .accountUser(user)
-                        .accountNumber("1000000013").build()));
-
-        ArgumentCaptor<Account> captor = ArgumentCaptor.forClass(Account.class);
-
-        // when
-        AccountDto accountDto = accountService.createAccount(1L, 1000L);
-
-        // then
-        verify(accountRepository, times(1)).save(captor.capture());
-        assertEquals(15L, accountDto.getUserId());
-        assertEquals("1000000000", captor.getValue().getAccountNumber());
-    }
-
     @Test
     @DisplayName("해당 유저 없음 - 계좌 생성 실패")
     void createAccount_UserNotFound() {
@@ -150,6 +151,7 @@ class AccountServiceTest {
 
         // then
         verify(accountRepository, times(1)).save(captor.capture());
+        verify(applicationEventPublisher, times(1)).publishEvent(any(AccountChangedEvent.class));
         assertEquals(12L, accountDto.getUserId());
         assertEquals("1000000012", captor.getValue().getAccountNumber());
         assertEquals(AccountStatus.UNREGISTERED, captor.getValue().getAccountStatus());
@@ -268,48 +270,76 @@ class AccountServiceTest {
     @Test
     void successGetAccountsByUserId() {
     	// given
-        AccountUser user = AccountUser.builder().name("Pobi").build();
-        user.setId(12L);
-        List<Account> accounts =
+        List<AccountDto> accountDtos =
                 Arrays.asList(
-                        Account.builder()
-                                .accountUser(user)
+                        AccountDto.builder()
+                                .userId(12L)
                                 .accountNumber("1111111111")
                                 .balance(1000L).build(),
-                        Account.builder()
-                                .accountUser(user)
+                        AccountDto.builder()
+                                .userId(12L)
                                 .accountNumber("2222222222")
                                 .balance(2000L).build(),
-                        Account.builder()
-                                .accountUser(user)
+                        AccountDto.builder()
+                                .userId(12L)
                                 .accountNumber("3333333333")
                                 .balance(3000L).build()
                 );
 
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user));
-
-        given(accountRepository.findByAccountUser(any()))
-                .willReturn(accounts);
+        given(accountRepository.findDtosByUserId(anyLong()))
+                .willReturn(accountDtos);
 
     	// when
-        List<AccountDto> accountDtos = accountService.getAccountsByUserId(1L);
+        List<AccountDto> result = accountService.getAccountsByUserId(1L);
+
+        // then
+        assertEquals(3, result.size());
+        assertEquals("1111111111", result.get(0).getAccountNumber());
+        assertEquals(1000, result.get(0).getBalance());
+        assertEquals("2222222222", result.get(1).getAccountNumber());
+        assertEquals(2000, result.get(1).getBalance());
+        assertEquals("3333333333", result.get(2).getAccountNumber());
+        assertEquals(3000, result.get(2).getBalance());
+    }
+
+    @Test
+    @DisplayName("두 번째 조회는 캐시에서 반환")
+    void getAccountsByUserId_cached() {
+        // given
+        given(accountRepository.findDtosByUserId(anyLong()))
+                .willReturn(List.of(AccountDto.builder()
+                        .userId(12L)
+                        .accountNumber("1111111111")
+                        .balance(1000L).build()));
+
+        // when
+        accountService.getAccountsByUserId(12L);
+        List<AccountDto> result = accountService.getAccountsByUserId(12L);
+
+        // then
+        verify(accountRepository, times(1)).findDtosByUserId(12L);
+        assertEquals("1111111111", result.get(0).getAccountNumber());
+    }
+
+    @Test
+    @DisplayName("계좌가 없는 사용자 - 빈 목록")
+    void getAccountsByUserId_NoAccount() {
+        // given
+        given(accountRepository.findDtosByUserId(anyLong()))
+                .willReturn(List.of(AccountDto.builder().userId(12L).build()));
+
+        // when
+        List<AccountDto> result = accountService.getAccountsByUserId(12L);
 
         // then
-        assertEquals(3, accountDtos.size());
-        assertEquals("1111111111", accountDtos.get(0).getAccountNumber());
-        assertEquals(1000, accountDtos.get(0).getBalance());
-        assertEquals("2222222222", accountDtos.get(1).getAccountNumber());
-        assertEquals(2000, accountDtos.get(1).getBalance());
-        assertEquals("3333333333", accountDtos.get(2).getAccountNumber());
-        assertEquals(3000, accountDtos.get(2).getBalance());
+        assertTrue(result.isEmpty());
     }
 
     @Test
     void failedToGetAccounts() {
     	// given
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.empty());
+        given(accountRepository.findDtosByUserId(anyLong()))
+                .willReturn(List.of());
 
         // when
         AccountException exception = assertThrows(AccountException.class,
@@ -318,4 +348,101 @@ class AccountServiceTest {
         // then
         assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
     }
+
+    @Test
+    void getBalanceAt() {
+        // given
+        LocalDateTime at = LocalDateTime.of(2026, 3, 1, 12, 0);
+        Account account = Account.builder()
+                .accountNumber("1000000012")
+                .balance(3000L)
+                .registeredAt(at.minusDays(10))
+                .build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository
+                .findFirstByAccountAndTransactionResultTypeAndTransactedAtLessThanEqualOrderByTransactedAtDescIdDesc(
+                        account, S, at))
+                .willReturn(Optional.of(Transaction.builder()
+                        .transactionType(USE)
+                        .amount(1000L)
+                        .balanceSnapshot(7000L)
+                        .transactionId("transactionId")
+                        .transactedAt(at.minusHours(1))
+                        .build()));
+
+        // when
+        BalanceDto balanceDto = accountService.getBalanceAt("1000000012", at);
+
+        // then
+        assertEquals(7000L, balanceDto.getBalance());
+        assertEquals("transactionId", balanceDto.getTransactionId());
+        assertEquals(at, balanceDto.getAt());
+    }
+
+    @Test
+    void getBalanceAt_beforeFirstTransaction() {
+        // given
+        LocalDateTime at = LocalDateTime.of(2026, 3, 1, 12, 0);
+        Account account = Account.builder()
+                .accountNumber("1000000012")
+                .balance(3000L)
+                .registeredAt(at.minusDays(10))
+                .build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository
+                .findFirstByAccountAndTransactionResultTypeAndTransactedAtGreaterThanOrderByTransactedAtAscIdAsc(
+                        account, S, at))
+                .willReturn(Optional.of(Transaction.builder()
+                        .transactionType(USE)
+                        .amount(1000L)
+                        .balanceSnapshot(9000L)
+                        .transactedAt(at.plusHours(1))
+                        .build()));
+
+        // when
+        BalanceDto balanceDto = accountService.getBalanceAt("1000000012", at);
+
+        // then
+        assertEquals(10000L, balanceDto.getBalance()); // 첫 거래 전의 잔액
+        assertNull(balanceDto.getTransactionId());
+    }
+
+    @Test
+    void getBalanceAt_noTransactions() {
+        // given
+        LocalDateTime at = LocalDateTime.of(2026, 3, 1, 12, 0);
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(Account.builder()
+                        .accountNumber("1000000012")
+                        .balance(3000L)
+                        .registeredAt(at.minusDays(10))
+                        .build()));
+
+        // when
+        BalanceDto balanceDto = accountService.getBalanceAt("1000000012", at);
+
+        // then
+        assertEquals(3000L, balanceDto.getBalance());
+    }
+
+    @Test
+    void getBalanceAt_notRegisteredYet() {
+        // given
+        LocalDateTime at = LocalDateTime.of(2026, 3, 1, 12, 0);
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(Account.builder()
+                        .accountNumber("1000000012")
+                        .balance(3000L)
+                        .registeredAt(at.plusDays(1))
+                        .build()));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> accountService.getBalanceAt("1000000012", at));
+
+        // then
+        assertEquals(ErrorCode.ACCOUNT_NOT_REGISTERED_YET, exception.getErrorCode());
+    }
 }
@@ -0,0 +1,103 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.config.CacheConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountUserCacheInvalidatorTest {
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private RTopic topic;
+
+    @Mock
+    private Cache cache;
+
+    @InjectMocks
+    private AccountUserCacheInvalidator accountUserCacheInvalidator;
+
+    @BeforeEach
+    void setUp() {
+        given(redissonClient.getTopic(anyString(), any())).willReturn(topic);
+        accountUserCacheInvalidator.subscribe();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void invalidate() {
+        // given
+        given(cacheManager.getCache(CacheConfig.ACCOUNT_USER)).willReturn(cache);
+
+        // when
+        accountUserCacheInvalidator.invalidate(12L);
+
+        // then
+        verify(cache).evict(12L);
+        verify(topic).publish(12L);
+    }
+
+    @Test
+    void invalidate_publishAfterCommit() {
+        // given
+        given(cacheManager.getCache(CacheConfig.ACCOUNT_USER)).willReturn(cache);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        accountUserCacheInvalidator.invalidate(12L);
+
+        // then
+        verify(topic, never()).publish(anyLong());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+        verify(topic).publish(12L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void evictOnMessage() {
+        // given
+        given(cacheManager.getCache(CacheConfig.ACCOUNT_USER)).willReturn(cache);
+        ArgumentCaptor<MessageListener<Long>> captor =
+                ArgumentCaptor.forClass(MessageListener.class);
+        verify(topic).addListener(eq(Long.class), captor.capture());
+
+        // when
+        captor.getValue().onMessage("account-user-cache-invalidation", 12L);
+
+        // then
+        verify(cache).evict(12L);
+        verify(topic, never()).publish(anyLong());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.exception.AccountException;
+import com.example.accountsystem.repository.AccountRepository;
+import com.example.accountsystem.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseLockServiceTest {
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    @InjectMocks
+    private DatabaseLockService lockService;
+
+    @Test
+    void lockAndCommit() {
+        // given
+        given(transactionManager.getTransaction(any()))
+                .willReturn(transactionStatus);
+        given(accountRepository.findByAccountNumberForUpdate(anyString()))
+                .willReturn(Optional.empty());
+
+        // when
+        lockService.lock("1234567890");
+        lockService.unlock("1234567890");
+
+        // then
+        verify(accountRepository, times(1)).findByAccountNumberForUpdate("1234567890");
+        verify(transactionManager, times(1)).commit(transactionStatus);
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    @Test
+    void rollbackOnUnlock_whenRollbackOnly() {
+        // given
+        given(transactionManager.getTransaction(any()))
+                .willReturn(transactionStatus);
+        given(transactionStatus.isRollbackOnly()).willReturn(true);
+
+        // when
+        lockService.lock("1234567890");
+        lockService.unlock("1234567890");
+
+        // then
+        verify(transactionManager, times(1)).rollback(transactionStatus);
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void failGetLock() {
+        // given
+        given(transactionManager.getTransaction(any()))
+                .willReturn(transactionStatus);
+        given(accountRepository.findByAccountNumberForUpdate(anyString()))
+                .willThrow(new PessimisticLockingFailureException("timeout"));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> lockService.lock("1234567890"));
+
+        // then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        verify(transactionManager, times(1)).rollback(transactionStatus);
+    }
+}
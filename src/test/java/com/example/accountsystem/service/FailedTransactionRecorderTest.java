@@ -0,0 +1,142 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.config.FailedTransactionProperties;
+import com.example.accountsystem.dto.FailedTransaction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.accountsystem.type.TransactionType.CANCEL;
+import static com.example.accountsystem.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FailedTransactionRecorderTest {
+    @Mock
+    private TransactionService transactionService;
+
+    @Spy
+    private FailedTransactionProperties failedTransactionProperties =
+            new FailedTransactionProperties();
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private FailedTransactionRecorder failedTransactionRecorder;
+
+    @Test
+    void recordInBatch() throws InterruptedException {
+        // given
+        failedTransactionProperties.setFlushInterval(Duration.ofMillis(200));
+        failedTransactionRecorder.start();
+
+        // when
+        failedTransactionRecorder.record(FailedTransaction.of(USE, "1000000000", 1000L));
+        failedTransactionRecorder.record(FailedTransaction.of(CANCEL, "1000000001", 2000L));
+        failedTransactionRecorder.record(FailedTransaction.of(USE, "1000000000", 3000L));
+
+        // then
+        verify(transactionService, timeout(2000).times(1))
+                .saveFailedTransactions(argThat(failed -> failed.size() == 3));
+        failedTransactionRecorder.stop();
+        verify(transactionService, times(1)).saveFailedTransactions(anyList());
+    }
+
+    @Test
+    void recordInBatch_splitByBatchSize() throws InterruptedException {
+        // given
+        failedTransactionProperties.setBatchSize(2);
+        failedTransactionProperties.setFlushInterval(Duration.ofMillis(200));
+        failedTransactionRecorder.start();
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            failedTransactionRecorder.record(FailedTransaction.of(USE, "1000000000", 1000L));
+        }
+        failedTransactionRecorder.stop();
+
+        // then
+        verify(transactionService, atLeast(3))
+                .saveFailedTransactions(argThat(failed -> failed.size() <= 2));
+    }
+
+    @Test
+    void drop_whenQueueFull() throws InterruptedException {
+        // given
+        failedTransactionProperties.setCapacity(1);
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            if (Thread.currentThread().getName().equals("failed-transaction-writer")) {
+                saving.countDown();
+                release.await();
+            }
+            return null;
+        }).given(transactionService).saveFailedTransactions(anyList());
+        failedTransactionRecorder.start();
+
+        // writer 가 첫 거래를 기록하느라 멈춰 있는 동안 대기열을 채운다.
+        failedTransactionRecorder.record(FailedTransaction.of(USE, "1000000000", 1000L));
+        assertTrue(saving.await(2, TimeUnit.SECONDS));
+        failedTransactionRecorder.record(FailedTransaction.of(USE, "1000000000", 2000L));
+
+        // when
+        failedTransactionRecorder.record(FailedTransaction.of(USE, "1000000000", 3000L));
+
+        // then
+        assertEquals(1.0, meterRegistry.get("account.failed-transaction.dropped").counter().count());
+        release.countDown();
+        failedTransactionRecorder.stop();
+        verify(transactionService, times(1)).saveFailedTransactions(
+                argThat(failed -> failed.size() == 1 && failed.get(0).getAmount() == 2000L));
+        verify(transactionService, never()).saveFailedTransactions(
+                argThat(failed -> failed.stream().anyMatch(f -> f.getAmount() == 3000L)));
+        verify(transactionService, times(2)).saveFailedTransactions(anyList()); // 요청 스레드에서는 기록하지 않는다.
+    }
+
+    @Test
+    void drainOnStop() throws InterruptedException {
+        // given
+        failedTransactionProperties.setFlushInterval(Duration.ofSeconds(10));
+        failedTransactionRecorder.start();
+        failedTransactionRecorder.record(FailedTransaction.of(USE, "1000000000", 1000L));
+        failedTransactionRecorder.record(FailedTransaction.of(USE, "1000000000", 2000L));
+
+        // when
+        failedTransactionRecorder.stop();
+
+        // then
+        verify(transactionService, times(1))
+                .saveFailedTransactions(argThat(List.class::isInstance));
+        verify(transactionService, times(1))
+                .saveFailedTransactions(argThat(failed -> failed.size() == 2));
+    }
+
+    @Test
+    void drop_afterStop() throws InterruptedException {
+        // given
+        failedTransactionRecorder.start();
+        failedTransactionRecorder.stop();
+
+        // when
+        failedTransactionRecorder.record(FailedTransaction.of(CANCEL, "1000000000", 3000L));
+
+        // then
+        verify(transactionService, never()).saveFailedTransactions(anyList());
+        assertEquals(1.0, meterRegistry.get("account.failed-transaction.dropped").counter().count());
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.config.HotAccountProperties;
+import com.example.accountsystem.dto.HotAccount;
+import com.example.accountsystem.exception.AccountException;
+import com.example.accountsystem.type.ErrorCode;
+import com.example.accountsystem.type.HotAccountMetric;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotAccountDetectorTest {
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private HotAccountDetector hotAccountDetector;
+
+    @BeforeEach
+    void setUp() {
+        HotAccountProperties properties = new HotAccountProperties();
+        properties.setCapacity(4);
+        properties.setBucketDuration(Duration.ofSeconds(10));
+        properties.setBuckets(6);
+        hotAccountDetector = new HotAccountDetector(properties, now::get);
+    }
+
+    @Test
+    void topAccountsByFailures() {
+        // given
+        record("1000000001", 10, false);
+        record("1000000002", 3, false);
+        record("1000000003", 5, true);
+
+        // when
+        List<HotAccount> hotAccounts = hotAccountDetector.getHotAccounts(
+                Duration.ofMinutes(1), HotAccountMetric.FAILURES, 2);
+
+        // then
+        assertEquals(2, hotAccounts.size());
+        assertEquals("1000000001", hotAccounts.get(0).getAccountNumber());
+        assertEquals(10L, hotAccounts.get(0).getValue());
+        assertEquals("1000000002", hotAccounts.get(1).getAccountNumber());
+    }
+
+    @Test
+    void sumWaitTime() {
+        // given
+        hotAccountDetector.record("1000000001", TimeUnit.MILLISECONDS.toNanos(300), true);
+        hotAccountDetector.record("1000000001", TimeUnit.MILLISECONDS.toNanos(200), true);
+
+        // when
+        List<HotAccount> hotAccounts = hotAccountDetector.getHotAccounts(
+                Duration.ofSeconds(10), HotAccountMetric.WAIT_TIME, 10);
+
+        // then
+        assertEquals(500_000L, hotAccounts.get(0).getValue());
+    }
+
+    @Test
+    void mergeStripes_whenRecordedFromManyThreads() throws Exception {
+        // given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> record("1000000001", 100, false)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // when
+        List<HotAccount> hotAccounts = hotAccountDetector.getHotAccounts(
+                Duration.ofSeconds(10), HotAccountMetric.FAILURES, 10);
+
+        // then
+        assertEquals(1, hotAccounts.size());
+        assertEquals(800L, hotAccounts.get(0).getValue());
+        assertEquals(0L, hotAccounts.get(0).getMaxError());
+    }
+
+    @Test
+    void keepHeavyHitter_whenManyAccounts() {
+        // given
+        for (int i = 0; i < 1000; i++) {
+            record("1000000000", 1, true);
+            record(String.valueOf(2000000000L + i), 1, true); // 한 번씩만 나오는 계좌
+        }
+
+        // when
+        List<HotAccount> hotAccounts = hotAccountDetector.getHotAccounts(
+                Duration.ofSeconds(10), HotAccountMetric.ATTEMPTS, 1);
+
+        // then
+        assertEquals("1000000000", hotAccounts.get(0).getAccountNumber());
+        HotAccount hot = hotAccounts.get(0);
+        assertTrue(hot.getValue() - hot.getMaxError() <= 1000 && 1000 <= hot.getValue());
+    }
+
+    @Test
+    void slidingWindow() {
+        // given
+        record("1000000001", 5, true);
+        now.addAndGet(Duration.ofSeconds(30).toMillis());
+        record("1000000002", 1, true);
+
+        // when
+        List<HotAccount> recent = hotAccountDetector.getHotAccounts(
+                Duration.ofSeconds(10), HotAccountMetric.ATTEMPTS, 10);
+        List<HotAccount> all = hotAccountDetector.getHotAccounts(
+                Duration.ofMinutes(1), HotAccountMetric.ATTEMPTS, 10);
+
+        // then
+        assertEquals(1, recent.size());
+        assertEquals("1000000002", recent.get(0).getAccountNumber());
+        assertEquals(2, all.size());
+        assertEquals("1000000001", all.get(0).getAccountNumber());
+    }
+
+    @Test
+    void forgetExpiredBucket() {
+        // given
+        record("1000000001", 5, true);
+        now.addAndGet(Duration.ofMinutes(1).toMillis()); // 같은 구간이 다시 쓰인다.
+        record("1000000002", 1, true);
+
+        // when
+        List<HotAccount> hotAccounts = hotAccountDetector.getHotAccounts(
+                Duration.ofMinutes(1), HotAccountMetric.ATTEMPTS, 10);
+
+        // then
+        assertEquals(1, hotAccounts.size());
+        assertEquals("1000000002", hotAccounts.get(0).getAccountNumber());
+    }
+
+    @Test
+    void failGetHotAccounts_windowTooLong() {
+        // given
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> hotAccountDetector.getHotAccounts(
+                        Duration.ofMinutes(2), HotAccountMetric.ATTEMPTS, 10));
+
+        // then
+        assertEquals(ErrorCode.INVALID_REQUEST, exception.getErrorCode());
+    }
+
+    private void record(String accountNumber, int times, boolean acquired) {
+        for (int i = 0; i < times; i++) {
+            hotAccountDetector.record(accountNumber, 0, acquired);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.exception.AccountException;
+import com.example.accountsystem.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InProcessLockServiceTest {
+    private final InProcessLockService lockService = new InProcessLockService();
+
+    @Test
+    void lockAndUnlock() {
+        // given
+        // when
+        lockService.lock("1234567890");
+        lockService.unlock("1234567890");
+
+        // then
+        assertEquals(0, lockService.size());
+    }
+
+    @Test
+    void failGetLock_heldByOtherThread() {
+        // given
+        lockService.lock("1234567890");
+
+        // when
+        CompletableFuture<Throwable> result = CompletableFuture.supplyAsync(() ->
+                assertThrows(AccountException.class,
+                        () -> lockService.lock("1234567890")));
+
+        // then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+                ((AccountException) result.join()).getErrorCode());
+        lockService.unlock("1234567890");
+        assertEquals(0, lockService.size());
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.config.ConcurrencyProperties;
+import com.example.accountsystem.config.JournalProperties;
+import com.example.accountsystem.config.LedgerProperties;
+import com.example.accountsystem.domain.Account;
+import com.example.accountsystem.domain.AccountBalanceSnapshot;
+import com.example.accountsystem.domain.Transaction;
+import com.example.accountsystem.dto.LedgerBalance;
+import com.example.accountsystem.repository.AccountBalanceSnapshotRepository;
+import com.example.accountsystem.repository.TransactionRepository;
+import com.example.accountsystem.type.ConcurrencyMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerBalanceServiceTest {
+    @Spy
+    private LedgerProperties ledgerProperties = new LedgerProperties();
+
+    @Spy
+    private ConcurrencyProperties concurrencyProperties = new ConcurrencyProperties();
+
+    @Spy
+    private JournalProperties journalProperties = new JournalProperties();
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private AccountBalanceSnapshotRepository accountBalanceSnapshotRepository;
+
+    @InjectMocks
+    private LedgerBalanceService ledgerBalanceService;
+
+    private final Account account = Account.builder()
+            .accountNumber("1000000012")
+            .balance(10000L)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        ledgerProperties.setEnabled(true);
+        ledgerProperties.setSnapshotInterval(3);
+    }
+
+    @Test
+    void getBalance_snapshotAndTail() {
+        // given
+        given(accountBalanceSnapshotRepository.findFirstByAccountOrderByLastTransactionIdDesc(account))
+                .willReturn(Optional.of(snapshot(7000L, 20L)));
+        given(transactionRepository.sumAmountsAfter(account, 20L))
+                .willReturn(new LedgerBalance(-1500L, 2L));
+
+        // when
+        LedgerBalance ledgerBalance = ledgerBalanceService.getBalance(account);
+
+        // then
+        assertEquals(5500L, ledgerBalance.getBalance());
+        assertEquals(2L, ledgerBalance.getEventCount());
+    }
+
+    @Test
+    void getBalance_noSnapshot() {
+        // given
+        given(accountBalanceSnapshotRepository.findFirstByAccountOrderByLastTransactionIdDesc(account))
+                .willReturn(Optional.empty());
+
+        // when
+        LedgerBalance ledgerBalance = ledgerBalanceService.getBalance(account);
+
+        // then
+        assertEquals(10000L, ledgerBalance.getBalance()); // 원장 방식으로 거래한 적이 없으면 잔액 컬럼
+        verify(accountBalanceSnapshotRepository, never()).save(any());
+        verify(transactionRepository, never()).sumAmountsAfter(any(), any());
+    }
+
+    @Test
+    void getBalanceForUpdate_savesFirstSnapshot() {
+        // given
+        given(accountBalanceSnapshotRepository.findFirstByAccountOrderByLastTransactionIdDesc(account))
+                .willReturn(Optional.empty());
+        given(transactionRepository.findLastIdByAccount(account)).willReturn(15L);
+        given(accountBalanceSnapshotRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        given(transactionRepository.sumAmountsAfter(account, 15L))
+                .willReturn(new LedgerBalance(0L, 0L));
+        ArgumentCaptor<AccountBalanceSnapshot> captor =
+                ArgumentCaptor.forClass(AccountBalanceSnapshot.class);
+
+        // when
+        LedgerBalance ledgerBalance = ledgerBalanceService.getBalanceForUpdate(account);
+
+        // then
+        verify(accountBalanceSnapshotRepository, times(1)).save(captor.capture());
+        assertEquals(10000L, captor.getValue().getBalance());
+        assertEquals(15L, captor.getValue().getLastTransactionId());
+        assertEquals(10000L, ledgerBalance.getBalance());
+    }
+
+    @Test
+    void appended_belowInterval() {
+        // given
+        LedgerBalance ledgerBalance = new LedgerBalance(9000L, 2L);
+
+        // when
+        LedgerBalance result = ledgerBalanceService.appended(transaction(30L), ledgerBalance);
+
+        // then
+        assertSame(ledgerBalance, result);
+        verify(accountBalanceSnapshotRepository, never()).save(any());
+    }
+
+    @Test
+    void appended_savesSnapshot() {
+        // given
+        ArgumentCaptor<AccountBalanceSnapshot> captor =
+                ArgumentCaptor.forClass(AccountBalanceSnapshot.class);
+
+        // when
+        LedgerBalance result = ledgerBalanceService.appended(
+                transaction(30L), new LedgerBalance(9000L, 3L));
+
+        // then
+        verify(accountBalanceSnapshotRepository, times(1)).save(captor.capture());
+        assertEquals(9000L, captor.getValue().getBalance());
+        assertEquals(30L, captor.getValue().getLastTransactionId());
+        assertSame(account, captor.getValue().getAccount());
+        assertEquals(9000L, result.getBalance());
+        assertEquals(0L, result.getEventCount());
+    }
+
+    @Test
+    void validate_unsupportedConcurrencyMode() {
+        // given
+        concurrencyProperties.setUse(ConcurrencyMode.ATOMIC);
+        concurrencyProperties.setCancel(ConcurrencyMode.ATOMIC);
+
+        // when
+        // then
+        assertThrows(IllegalStateException.class, () -> ledgerBalanceService.validate());
+    }
+
+    @Test
+    void validate_journalEnabled() {
+        // given
+        journalProperties.setEnabled(true);
+
+        // when
+        // then
+        assertThrows(IllegalStateException.class, () -> ledgerBalanceService.validate());
+    }
+
+    private AccountBalanceSnapshot snapshot(Long balance, Long lastTransactionId) {
+        return AccountBalanceSnapshot.builder()
+                .account(account)
+                .balance(balance)
+                .lastTransactionId(lastTransactionId)
+                .build();
+    }
+
+    private Transaction transaction(Long id) {
+        Transaction transaction = Transaction.builder().account(account).build();
+        transaction.setId(id);
+        return transaction;
+    }
+}
\ No newline at end of file
@@ -1,32 +1,70 @@
 package com.example.accountsystem.service;
 
+import com.example.accountsystem.aop.AccountLock;
+import com.example.accountsystem.config.ConcurrencyProperties;
+import com.example.accountsystem.domain.Account;
 import com.example.accountsystem.dto.UseBalance;
 import com.example.accountsystem.exception.AccountException;
+import com.example.accountsystem.type.ConcurrencyMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
 
 import static com.example.accountsystem.type.ErrorCode.*;
+import static com.example.accountsystem.type.TransactionType.USE;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class LockAopAspectTest {
     @Mock
-    LockService lockService;
+    StripedLockService stripedLockService;
+
+    @Mock
+    AccountLockProvider accountLockProvider;
+
+    @Spy
+    ConcurrencyProperties concurrencyProperties = new ConcurrencyProperties();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    LockMetrics lockMetrics = new LockMetrics(meterRegistry);
+
+    @Mock
+    HotAccountDetector hotAccountDetector;
 
     @Mock
     private ProceedingJoinPoint proceedingJoinPoint;
 
-    @InjectMocks
+    @Mock
+    private AccountLock accountLock;
+
     private LockAopAspect lockAopAspect;
 
+    @BeforeEach
+    void setUp() {
+        lockAopAspect = new LockAopAspect(new AccountLockTemplate(stripedLockService,
+                accountLockProvider, lockMetrics, hotAccountDetector),
+                concurrencyProperties, lockMetrics);
+    }
+
     @Test
     void lockAndUnlock() throws Throwable {
     	// given
@@ -36,17 +74,23 @@ class LockAopAspectTest {
                 ArgumentCaptor.forClass(String.class);
         UseBalance.Request request =
                 new UseBalance.Request(123L, "1234567890", 1000L);
+        given(accountLock.type()).willReturn(USE);
 
     	// when
-        lockAopAspect.aroundMethod(proceedingJoinPoint, request);
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
 
     	// then
-        verify(lockService, times(1))
+        verify(accountLockProvider, times(1))
                 .lock(lockArgumentCaptor.capture());
-        verify(lockService, times(1))
+        verify(accountLockProvider, times(1))
                 .unlock(unlockArgumentCaptor.capture());
         assertEquals("1234567890", lockArgumentCaptor.getValue());
         assertEquals("1234567890", unlockArgumentCaptor.getValue());
+        verify(stripedLockService, times(1)).lock("1234567890");
+        verify(stripedLockService, times(1)).unlock("1234567890");
+        assertEquals(1L, meterRegistry.get("account.lock.wait").tag("endpoint", "use").timer().count());
+        assertEquals(1L, meterRegistry.get("account.lock.hold").tag("endpoint", "use").timer().count());
+        verify(hotAccountDetector, times(1)).record(eq("1234567890"), anyLong(), eq(true));
     }
 
     @Test
@@ -58,20 +102,105 @@ class LockAopAspectTest {
                 ArgumentCaptor.forClass(String.class);
         UseBalance.Request request =
                 new UseBalance.Request(123L, "1234567899", 1000L);
+        given(accountLock.type()).willReturn(USE);
 
         given(proceedingJoinPoint.proceed())
                 .willThrow(new AccountException(ACCOUNT_NOT_FOUND));
 
         // when
         assertThrows(AccountException.class, () ->
-            lockAopAspect.aroundMethod(proceedingJoinPoint, request));
+            lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request));
 
         // then
-        verify(lockService, times(1))
+        verify(accountLockProvider, times(1))
                 .lock(lockArgumentCaptor.capture());
-        verify(lockService, times(1))
+        verify(accountLockProvider, times(1))
                 .unlock(unlockArgumentCaptor.capture());
         assertEquals("1234567899", lockArgumentCaptor.getValue());
         assertEquals("1234567899", unlockArgumentCaptor.getValue());
+        verify(stripedLockService, times(1)).lock("1234567899");
+        verify(stripedLockService, times(1)).unlock("1234567899");
+    }
+
+    @Test
+    void releaseLocalLock_whenRedisLockFailed() throws Throwable {
+        // given
+        UseBalance.Request request =
+                new UseBalance.Request(123L, "1234567890", 1000L);
+        given(accountLock.type()).willReturn(USE);
+        willThrow(new AccountException(ACCOUNT_TRANSACTION_LOCK))
+                .given(accountLockProvider).lock(anyString());
+
+        // when
+        AccountException exception = assertThrows(AccountException.class, () ->
+                lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request));
+
+        // then
+        assertEquals(ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        verify(stripedLockService, times(1)).unlock("1234567890");
+        verify(accountLockProvider, never()).unlock(anyString());
+        verify(proceedingJoinPoint, never()).proceed();
+        assertEquals(1.0, meterRegistry.get("account.lock.failures")
+                .tag("endpoint", "use").counter().count());
+        assertNull(meterRegistry.find("account.lock.hold").timer());
+        verify(hotAccountDetector, times(1)).record(eq("1234567890"), anyLong(), eq(false));
+    }
+
+    @Test
+    void skipLock_whenAtomicMode() throws Throwable {
+        // given
+        UseBalance.Request request =
+                new UseBalance.Request(123L, "1234567890", 1000L);
+        given(accountLock.type()).willReturn(USE);
+        concurrencyProperties.setUse(ConcurrencyMode.ATOMIC);
+
+        // when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
+
+        // then
+        verify(proceedingJoinPoint, times(1)).proceed();
+        verify(stripedLockService, never()).lock(anyString());
+        verify(accountLockProvider, never()).lock(anyString());
+    }
+
+    @Test
+    void retry_whenOptimisticLockConflict() throws Throwable {
+        // given
+        UseBalance.Request request =
+                new UseBalance.Request(123L, "1234567890", 1000L);
+        given(accountLock.type()).willReturn(USE);
+        concurrencyProperties.setUse(ConcurrencyMode.OPTIMISTIC);
+        concurrencyProperties.getOptimistic().setBackoff(Duration.ZERO);
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L))
+                .willReturn("result");
+
+        // when
+        Object result = lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
+
+        // then
+        assertEquals("result", result);
+        verify(proceedingJoinPoint, times(2)).proceed();
+        verify(accountLockProvider, never()).lock(anyString());
+    }
+
+    @Test
+    void failRetry_whenOptimisticLockConflictExhausted() throws Throwable {
+        // given
+        UseBalance.Request request =
+                new UseBalance.Request(123L, "1234567890", 1000L);
+        given(accountLock.type()).willReturn(USE);
+        concurrencyProperties.setUse(ConcurrencyMode.OPTIMISTIC);
+        concurrencyProperties.getOptimistic().setBackoff(Duration.ZERO);
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class, () ->
+                lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request));
+
+        // then
+        assertEquals(ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        verify(proceedingJoinPoint, times(3)).proceed();
     }
 }
\ No newline at end of file
@@ -2,10 +2,12 @@ package com.example.accountsystem.service;
 
 import com.example.accountsystem.exception.AccountException;
 import com.example.accountsystem.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
@@ -22,6 +24,9 @@ class LockServiceTest {
     @Mock
     private RLock rLock;
 
+    @Spy
+    private LockMetrics lockMetrics = new LockMetrics(new SimpleMeterRegistry());
+
     @InjectMocks
     private LockService lockService;
 
@@ -0,0 +1,192 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.dto.AccountDto;
+import com.example.accountsystem.dto.TransactionDto;
+import com.example.accountsystem.exception.AccountException;
+import com.example.accountsystem.repository.AccountRepository;
+import com.example.accountsystem.repository.TransactionRepository;
+import com.example.accountsystem.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static com.example.accountsystem.type.TransactionType.CANCEL;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.redis.port=6380",
+        "spring.datasource.url=jdbc:h2:mem:redis-balance",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "account.concurrency.use=redis",
+        "account.concurrency.cancel=redis",
+        "account.concurrency.redis.flush-interval=10ms"
+})
+class RedisBalanceServiceTest {
+    @Autowired
+    private RedisBalanceService redisBalanceService;
+
+    @Autowired
+    private RedisLedgerWriter redisLedgerWriter;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Test
+    void useBalanceAndPersist() {
+        // given
+        AccountDto account = accountService.createAccount(1L, 10000L);
+
+        // when
+        TransactionDto transaction = redisBalanceService.useBalance(1L,
+                account.getAccountNumber(), 1000L);
+
+        // then
+        assertEquals(9000L, transaction.getBalanceSnapshot());
+        awaitUntil(() -> transactionRepository.existsByTransactionId(transaction.getTransactionId()));
+        assertEquals(9000L, accountRepository.findByAccountNumber(account.getAccountNumber())
+                .get().getBalance());
+    }
+
+    @Test
+    void useBalance_amountExceedBalance() {
+        // given
+        AccountDto account = accountService.createAccount(1L, 100L);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> redisBalanceService.useBalance(1L, account.getAccountNumber(), 1000L));
+
+        // then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+    }
+
+    @Test
+    void useBalance_userAccountUnMatch() {
+        // given
+        AccountDto account = accountService.createAccount(1L, 1000L);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> redisBalanceService.useBalance(2L, account.getAccountNumber(), 100L));
+
+        // then
+        assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH, exception.getErrorCode());
+    }
+
+    @Test
+    void cancelBalance() {
+        // given
+        AccountDto account = accountService.createAccount(2L, 10000L);
+        TransactionDto used = redisBalanceService.useBalance(2L,
+                account.getAccountNumber(), 1000L);
+
+        // when
+        TransactionDto canceled = redisBalanceService.cancelBalance(used.getTransactionId(),
+                account.getAccountNumber(), 1000L);
+
+        // then
+        assertEquals(CANCEL, canceled.getTransactionType());
+        assertEquals(10000L, canceled.getBalanceSnapshot());
+        awaitUntil(() -> transactionRepository.existsByTransactionId(canceled.getTransactionId()));
+        assertEquals(10000L, accountRepository.findByAccountNumber(account.getAccountNumber())
+                .get().getBalance());
+    }
+
+    @Test
+    void cancelBalance_cancelMustFully() {
+        // given
+        AccountDto account = accountService.createAccount(2L, 10000L);
+        TransactionDto used = redisBalanceService.useBalance(2L,
+                account.getAccountNumber(), 1000L);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> redisBalanceService.cancelBalance(used.getTransactionId(),
+                        account.getAccountNumber(), 500L));
+
+        // then
+        assertEquals(ErrorCode.CANCEL_MUST_FULLY, exception.getErrorCode());
+    }
+
+    @Test
+    void concurrentUseBalance() throws Exception {
+        // given
+        AccountDto account = accountService.createAccount(3L, 1000L);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger exceeded = new AtomicInteger();
+
+        // when
+        List<Callable<Void>> tasks = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tasks.add(() -> {
+                try {
+                    redisBalanceService.useBalance(3L, account.getAccountNumber(), 100L);
+                    succeeded.incrementAndGet();
+                } catch (AccountException e) {
+                    if (e.getErrorCode() == ErrorCode.AMOUNT_EXCEED_BALANCE) {
+                        exceeded.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        executor.invokeAll(tasks);
+        executor.shutdown();
+
+        // then
+        assertEquals(10, succeeded.get());
+        assertEquals(40, exceeded.get());
+        awaitUntil(() -> accountRepository.findByAccountNumber(account.getAccountNumber())
+                .get().getBalance() == 0L);
+    }
+
+    @Test
+    void reconcile() {
+        // given
+        AccountDto account = accountService.createAccount(3L, 5000L);
+        redisBalanceService.useBalance(3L, account.getAccountNumber(), 1000L);
+        awaitUntil(() -> accountRepository.findByAccountNumber(account.getAccountNumber())
+                .get().getBalance() == 4000L);
+        redissonClient.getMap("ACBAL:" + account.getAccountNumber(), StringCodec.INSTANCE)
+                .fastPut("balance", "1"); // 유실된 경우
+
+        // when
+        redisLedgerWriter.reconcile();
+
+        // then
+        assertEquals(4000L, redisBalanceService.getSnapshot(account.getAccountNumber())
+                .get().getBalance());
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("condition not met in time");
+            }
+            try {
+                Thread.sleep(10L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,152 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.domain.Account;
+import com.example.accountsystem.domain.Transaction;
+import com.example.accountsystem.exception.AccountException;
+import com.example.accountsystem.repository.AccountRepository;
+import com.example.accountsystem.repository.TransactionRepository;
+import com.example.accountsystem.type.ErrorCode;
+import com.example.accountsystem.type.StatementFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.example.accountsystem.type.TransactionResultType.S;
+import static com.example.accountsystem.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class StatementServiceTest {
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 3, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2026, 4, 1, 0, 0);
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @InjectMocks
+    private StatementService statementService;
+
+    private final Account account = Account.builder().accountNumber("1000000012").build();
+
+    @Test
+    void writeStatement_ndjson() throws IOException {
+        // given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.streamStatement(account, FROM, TO))
+                .willReturn(Stream.of(transaction("t1", 1000L), transaction("t2", 2000L)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        statementService.writeStatement("1000000012", FROM, TO, StatementFormat.NDJSON, out);
+
+        // then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("t1", objectMapper.readTree(lines[0]).get("transactionId").asText());
+        assertEquals("1000000012", objectMapper.readTree(lines[1]).get("accountNumber").asText());
+        assertEquals(2000L, objectMapper.readTree(lines[1]).get("amount").asLong());
+    }
+
+    @Test
+    void writeStatement_csv() throws IOException {
+        // given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.streamStatement(account, FROM, TO))
+                .willReturn(Stream.of(transaction("t1", 1000L)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        statementService.writeStatement("1000000012", FROM, TO, StatementFormat.CSV, out);
+
+        // then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("accountNumber,"));
+        assertEquals("1000000012,USE,S,t1,1000,9000,2026-03-02T12:00", lines[1]);
+    }
+
+    @Test
+    void writeStatement_clearsPersistenceContext() throws IOException {
+        // given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.streamStatement(account, FROM, TO))
+                .willReturn(IntStream.range(0, StatementService.CLEAR_INTERVAL * 2 + 1)
+                        .mapToObj(i -> transaction("t" + i, 1000L)));
+
+        // when
+        statementService.writeStatement("1000000012", FROM, TO,
+                StatementFormat.CSV, new ByteArrayOutputStream());
+
+        // then
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void validateStatement_invalidPeriod() {
+        // given
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> statementService.validateStatement("1000000012", TO, FROM));
+
+        // then
+        assertEquals(ErrorCode.INVALID_REQUEST, exception.getErrorCode());
+    }
+
+    @Test
+    void validateStatement_accountNotFound() {
+        // given
+        given(accountRepository.existsByAccountNumber(anyString())).willReturn(false);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> statementService.validateStatement("1000000012", FROM, TO));
+
+        // then
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
+    }
+
+    private Transaction transaction(String transactionId, Long amount) {
+        return Transaction.builder()
+                .account(account)
+                .transactionType(USE)
+                .transactionResultType(S)
+                .amount(amount)
+                .balanceSnapshot(9000L)
+                .transactionId(transactionId)
+                .transactedAt(LocalDateTime.of(2026, 3, 2, 12, 0))
+                .build();
+    }
+}
\ No newline at end of file
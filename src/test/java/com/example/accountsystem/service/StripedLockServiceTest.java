@@ -0,0 +1,54 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.exception.AccountException;
+import com.example.accountsystem.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedLockServiceTest {
+    private final StripedLockService stripedLockService = new StripedLockService(1024);
+
+    @Test
+    void successGetLock() {
+        // given
+        // when
+        // then
+        assertDoesNotThrow(() -> stripedLockService.lock("1234567890"));
+        stripedLockService.unlock("1234567890");
+    }
+
+    @Test
+    void failGetLock_heldByOtherThread() {
+        // given
+        stripedLockService.lock("1234567890");
+
+        // when
+        CompletableFuture<Throwable> result = CompletableFuture.supplyAsync(() ->
+                assertThrows(AccountException.class,
+                        () -> stripedLockService.lock("1234567890")));
+
+        // then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+                ((AccountException) result.join()).getErrorCode());
+        stripedLockService.unlock("1234567890");
+    }
+
+    @Test
+    void successGetLock_afterRelease() {
+        // given
+        stripedLockService.lock("1234567890");
+        stripedLockService.unlock("1234567890");
+
+        // when
+        CompletableFuture<Void> result = CompletableFuture.runAsync(() -> {
+            stripedLockService.lock("1234567890");
+            stripedLockService.unlock("1234567890");
+        });
+
+        // then
+        assertDoesNotThrow(result::join);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.accountsystem.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedTransactionIdGeneratorTest {
+    private final TimeOrderedTransactionIdGenerator generator =
+            new TimeOrderedTransactionIdGenerator(0x1234);
+
+    @Test
+    void generate() {
+        // given
+        long before = System.currentTimeMillis();
+
+        // when
+        String transactionId = generator.generate();
+
+        // then
+        assertEquals(32, transactionId.length());
+        assertTrue(transactionId.matches("[0-9a-f]{32}"));
+        assertEquals("1234", transactionId.substring(12, 16));
+        long timestamp = Long.parseLong(transactionId.substring(0, 12), 16);
+        assertTrue(timestamp >= before && timestamp <= System.currentTimeMillis());
+    }
+
+    @Test
+    void generate_timeOrdered() throws InterruptedException {
+        // given
+        String first = generator.generate();
+        Thread.sleep(2L);
+
+        // when
+        String second = generator.generate();
+
+        // then
+        assertTrue(first.compareTo(second) < 0);
+    }
+
+    @Test
+    void generate_uniqueAcrossThreads() throws InterruptedException {
+        // given
+        int threads = 8;
+        int perThread = 10000;
+        Set<String> transactionIds = ConcurrentHashMap.newKeySet();
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        // when
+        for (int i = 0; i < threads; i++) {
+            executorService.submit(() -> {
+                List<String> generated = new ArrayList<>(perThread);
+                for (int j = 0; j < perThread; j++) {
+                    generated.add(generator.generate());
+                }
+                transactionIds.addAll(generated);
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executorService.shutdown();
+
+        // then
+        assertEquals(threads * perThread, transactionIds.size());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,297 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.config.JournalProperties;
+import com.example.accountsystem.domain.Account;
+import com.example.accountsystem.domain.Transaction;
+import com.example.accountsystem.dto.JournalRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.example.accountsystem.type.TransactionResultType.S;
+import static com.example.accountsystem.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionJournalTest {
+    @TempDir
+    Path directory;
+
+    private TransactionJournal transactionJournal;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        transactionJournal.close();
+    }
+
+    @Test
+    void appendAndRead() throws IOException {
+        // given
+        transactionJournal = open(DataSize.ofKilobytes(64));
+        LocalDateTime transactedAt = LocalDateTime.of(2026, 1, 2, 3, 4, 5, 123456789);
+
+        // when
+        transactionJournal.append(List.of(record("tx-1", 1000L, transactedAt)));
+
+        // then
+        List<JournalRecord> records = committed(transactionJournal.readUnapplied(10));
+        assertEquals(1, records.size());
+        assertEquals("tx-1", records.get(0).getTransactionId());
+        assertEquals(USE, records.get(0).getTransactionType());
+        assertEquals(S, records.get(0).getTransactionResultType());
+        assertEquals(7L, records.get(0).getAccountId());
+        assertEquals("1000000007", records.get(0).getAccountNumber());
+        assertEquals(1000L, records.get(0).getAmount());
+        assertEquals(transactedAt, records.get(0).getTransactedAt());
+        assertTrue(transactionJournal.findPending("tx-1").isPresent());
+    }
+
+    @Test
+    void rotateSegments() throws IOException {
+        // given
+        transactionJournal = open(DataSize.ofBytes(256));
+
+        // when
+        transactionJournal.append(records(20));
+
+        // then
+        List<JournalRecord> records = transactionJournal.readUnapplied(100);
+        assertEquals(20, committed(records).size());
+        assertEquals("tx-19", committed(records).get(19).getTransactionId());
+        assertTrue(countSegments() > 1);
+
+        transactionJournal.markApplied(records);
+        assertTrue(transactionJournal.readUnapplied(100).isEmpty());
+        assertTrue(transactionJournal.findPending("tx-0").isEmpty());
+        assertEquals(1, countSegments()); // 모두 기록된 파일은 지운다.
+    }
+
+    @Test
+    void replayAfterRestart() throws Exception {
+        // given
+        transactionJournal = open(DataSize.ofBytes(256));
+        transactionJournal.append(records(5));
+        transactionJournal.markApplied(transactionJournal.readUnapplied(2));
+        transactionJournal.close();
+
+        // when
+        transactionJournal = open(DataSize.ofBytes(256));
+
+        // then
+        List<JournalRecord> records = transactionJournal.readUnapplied(100);
+        assertEquals(List.of("tx-2", "tx-3", "tx-4"), transactionIds(committed(records)));
+
+        transactionJournal.append(List.of(record("tx-5", 100L, LocalDateTime.now())));
+        assertEquals(List.of("tx-2", "tx-3", "tx-4", "tx-5"),
+                transactionIds(committed(transactionJournal.readUnapplied(100))));
+    }
+
+    @Test
+    void ignoreTornRecord() throws Exception {
+        // given
+        transactionJournal = open(DataSize.ofKilobytes(64));
+        transactionJournal.append(records(2));
+        long secondRecord = transactionJournal.readUnapplied(1).get(0).getEndPosition();
+        transactionJournal.close();
+        try (RandomAccessFile file = new RandomAccessFile(lastSegment().toFile(), "rw")) {
+            file.seek(secondRecord + 12); // 기록하는 중에 멈춘 경우
+            file.write(new byte[]{1, 2, 3});
+        }
+
+        // when
+        transactionJournal = open(DataSize.ofKilobytes(64));
+        transactionJournal.resolveInDoubt(Map.of(7L, 9900L)); // 커밋 기록도 함께 잘렸다.
+        transactionJournal.append(List.of(record("tx-2", 100L, LocalDateTime.now())));
+
+        // then
+        assertEquals(List.of("tx-0", "tx-2"),
+                transactionIds(committed(transactionJournal.readUnapplied(100))));
+    }
+
+    @Test
+    void appendBeforeCommit() throws IOException {
+        // given
+        transactionJournal = open(DataSize.ofKilobytes(64));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            transactionJournal.appendBeforeCommit(transaction("tx-1"));
+
+            // when
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.beforeCommit(false));
+
+            // then
+            assertTrue(transactionJournal.readUnapplied(10).isEmpty()); // 커밋 전
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        List<JournalRecord> records = transactionJournal.readUnapplied(10);
+        assertEquals(List.of("tx-1", "tx-1"), transactionIds(records)); // 거래와 커밋 기록
+        assertEquals(List.of("tx-1"), transactionIds(committed(records)));
+        assertTrue(transactionJournal.findPending("tx-1").isPresent());
+    }
+
+    @Test
+    void abortRolledBackTransaction() throws Exception {
+        // given
+        transactionJournal = open(DataSize.ofKilobytes(64));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            transactionJournal.appendBeforeCommit(transaction("tx-1"));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.beforeCommit(false));
+
+            // when
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        transactionJournal.close();
+        transactionJournal = open(DataSize.ofKilobytes(64));
+
+        // then
+        List<JournalRecord> records = transactionJournal.readUnapplied(10);
+        assertEquals(List.of("tx-1", "tx-1"), transactionIds(records)); // 거래와 취소 기록
+        assertTrue(records.stream().noneMatch(transactionJournal::isCommitted));
+        assertTrue(transactionJournal.findPending("tx-1").isEmpty());
+    }
+
+    @Test
+    void abortInDoubtTransaction() throws Exception {
+        // given
+        transactionJournal = open(DataSize.ofKilobytes(64));
+        prepareAndCrash("tx-1");
+
+        // when
+        transactionJournal = open(DataSize.ofKilobytes(64));
+
+        // then
+        assertEquals(Set.of(7L), transactionJournal.getInDoubtAccountIds());
+        assertTrue(transactionJournal.readUnapplied(10).isEmpty()); // 정할 때까지 기록하지 않는다.
+
+        transactionJournal.resolveInDoubt(Map.of(7L, 10000L)); // DB 커밋 전에 멈춰서 잔액이 그대로다.
+        assertTrue(committed(transactionJournal.readUnapplied(10)).isEmpty());
+
+        transactionJournal.close();
+        transactionJournal = open(DataSize.ofKilobytes(64));
+        assertTrue(transactionJournal.getInDoubtAccountIds().isEmpty());
+        assertTrue(committed(transactionJournal.readUnapplied(10)).isEmpty());
+    }
+
+    @Test
+    void commitInDoubtTransaction() throws Exception {
+        // given
+        transactionJournal = open(DataSize.ofKilobytes(64));
+        prepareAndCrash("tx-1");
+
+        // when
+        transactionJournal = open(DataSize.ofKilobytes(64));
+        transactionJournal.resolveInDoubt(Map.of(7L, 9000L)); // DB 커밋 후 커밋 기록 전에 멈췄다.
+
+        // then
+        assertEquals(List.of("tx-1"),
+                transactionIds(committed(transactionJournal.readUnapplied(10))));
+    }
+
+    /**
+     * 디스크에 내린 뒤 DB 커밋 여부가 정해지기 전에 멈춘 경우
+     */
+    private void prepareAndCrash(String transactionId) throws InterruptedException {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            transactionJournal.appendBeforeCommit(transaction(transactionId));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.beforeCommit(false));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        transactionJournal.close();
+    }
+
+    private void complete(int status) {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static Transaction transaction(String transactionId) {
+        Account account = Account.builder().accountNumber("1000000007").build();
+        account.setId(7L);
+        return Transaction.builder()
+                .transactionType(USE)
+                .transactionResultType(S)
+                .account(account)
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactionId(transactionId)
+                .transactedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private TransactionJournal open(DataSize segmentSize) throws IOException {
+        JournalProperties journalProperties = new JournalProperties();
+        journalProperties.setEnabled(true);
+        journalProperties.setDirectory(directory.toString());
+        journalProperties.setSegmentSize(segmentSize);
+        TransactionJournal journal = new TransactionJournal(journalProperties);
+        journal.open();
+        return journal;
+    }
+
+    private static JournalRecord record(String transactionId, Long amount,
+                                        LocalDateTime transactedAt) {
+        return JournalRecord.builder()
+                .transactionType(USE)
+                .transactionResultType(S)
+                .accountId(7L)
+                .accountNumber("1000000007")
+                .amount(amount)
+                .balanceSnapshot(10000L - amount)
+                .transactionId(transactionId)
+                .transactedAt(transactedAt)
+                .build();
+    }
+
+    private static List<JournalRecord> records(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> record("tx-" + i, 100L, LocalDateTime.now()))
+                .collect(Collectors.toList());
+    }
+
+    private List<JournalRecord> committed(List<JournalRecord> records) {
+        return records.stream().filter(transactionJournal::isCommitted).collect(Collectors.toList());
+    }
+
+    private static List<String> transactionIds(List<JournalRecord> records) {
+        return records.stream().map(JournalRecord::getTransactionId).collect(Collectors.toList());
+    }
+
+    private long countSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).count();
+        }
+    }
+
+    private Path lastSegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log"))
+                    .max(Path::compareTo)
+                    .orElseThrow();
+        }
+    }
+}
\ No newline at end of file
@@ -1,24 +1,39 @@
 package com.example.accountsystem.service;
 
+import com.example.accountsystem.config.ConcurrencyProperties;
 import com.example.accountsystem.domain.Account;
+import com.example.accountsystem.domain.AccountChangedEvent;
 import com.example.accountsystem.domain.AccountUser;
 import com.example.accountsystem.domain.Transaction;
+import com.example.accountsystem.dto.FailedTransaction;
+import com.example.accountsystem.dto.LedgerBalance;
+import com.example.accountsystem.dto.TransactionCursor;
 import com.example.accountsystem.dto.TransactionDto;
+import com.example.accountsystem.dto.TransactionOutcome;
+import com.example.accountsystem.dto.TransactionPage;
+import com.example.accountsystem.dto.UseBalance;
 import com.example.accountsystem.exception.AccountException;
 import com.example.accountsystem.repository.AccountRepository;
 import com.example.accountsystem.repository.AccountUserRepository;
 import com.example.accountsystem.repository.TransactionRepository;
 import com.example.accountsystem.type.AccountStatus;
+import com.example.accountsystem.type.ConcurrencyMode;
 import com.example.accountsystem.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static com.example.accountsystem.type.TransactionResultType.F;
@@ -28,6 +43,7 @@ import static com.example.accountsystem.type.TransactionType.USE;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -44,6 +60,30 @@ class TransactionServiceTest {
     @Mock
     private AccountUserRepository accountUserRepository;
 
+    @Spy
+    private ConcurrencyProperties concurrencyProperties = new ConcurrencyProperties();
+
+    @Spy
+    private TransactionIdGenerator transactionIdGenerator =
+            new TimeOrderedTransactionIdGenerator(0);
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    private TransactionJournal transactionJournal;
+
+    @Mock
+    private LedgerBalanceService ledgerBalanceService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private TransactionMetrics transactionMetrics = new TransactionMetrics(meterRegistry);
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -88,6 +128,105 @@ class TransactionServiceTest {
         assertEquals(USE, transactionDto.getTransactionType());
         assertEquals(9000L, transactionDto.getBalanceSnapshot());
         assertEquals(1000L, transactionDto.getAmount());
+        verify(entityManager, times(1)).flush();
+        for (String phase : List.of(TransactionMetrics.LOAD, TransactionMetrics.VALIDATE,
+                TransactionMetrics.PERSIST)) {
+            assertEquals(1L, meterRegistry.get("account.transaction.phase")
+                    .tags("operation", "use", "phase", phase).timer().count());
+        }
+    }
+
+    @Test
+    @DisplayName("저널을 사용하면 거래를 DB 대신 저널에 기록")
+    void successUseBalance_journal() {
+        // given
+        AccountUser user = AccountUser.builder().name("Pobi").build();
+        user.setId(12L);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(Account.builder()
+                        .accountUser(user)
+                        .accountNumber("1000000012")
+                        .accountStatus(AccountStatus.IN_USE)
+                        .balance(10000L).build()));
+        given(transactionJournal.isEnabled()).willReturn(true);
+
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+
+        // when
+        TransactionDto transactionDto = transactionService.useBalance(1L,
+                "1000000012", USE_AMOUNT);
+
+        // then
+        verify(transactionJournal, times(1)).appendBeforeCommit(captor.capture());
+        verify(transactionRepository, never()).save(any());
+        assertEquals(9800L, captor.getValue().getBalanceSnapshot());
+        assertEquals(captor.getValue().getTransactionId(), transactionDto.getTransactionId());
+    }
+
+    @Test
+    void successUseBalance_ledger() {
+        // given
+        AccountUser user = AccountUser.builder().name("Pobi").build();
+        user.setId(12L);
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountNumber("1000000012")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L).build();
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(ledgerBalanceService.isEnabled()).willReturn(true);
+        given(ledgerBalanceService.getBalanceForUpdate(any()))
+                .willReturn(new LedgerBalance(5000L, 3L));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        ArgumentCaptor<LedgerBalance> captor = ArgumentCaptor.forClass(LedgerBalance.class);
+
+        // when
+        TransactionDto transactionDto = transactionService.useBalance(1L,
+                "1000000012", USE_AMOUNT);
+
+        // then
+        verify(ledgerBalanceService, times(1)).appended(any(), captor.capture());
+        assertEquals(4800L, captor.getValue().getBalance());
+        assertEquals(4L, captor.getValue().getEventCount());
+        assertEquals(4800L, transactionDto.getBalanceSnapshot());
+        assertEquals(10000L, account.getBalance()); // 잔액 컬럼은 바꾸지 않는다.
+        ArgumentCaptor<AccountChangedEvent> eventCaptor =
+                ArgumentCaptor.forClass(AccountChangedEvent.class);
+        verify(applicationEventPublisher, times(1)).publishEvent(eventCaptor.capture());
+        assertTrue(eventCaptor.getValue().isStale());
+    }
+
+    @Test
+    void useBalanceFailed_ledgerBalanceExceeded() {
+        // given
+        AccountUser user = AccountUser.builder().name("Pobi").build();
+        user.setId(12L);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(Account.builder()
+                        .accountUser(user)
+                        .accountNumber("1000000012")
+                        .accountStatus(AccountStatus.IN_USE)
+                        .balance(10000L).build()));
+        given(ledgerBalanceService.isEnabled()).willReturn(true);
+        given(ledgerBalanceService.getBalanceForUpdate(any()))
+                .willReturn(new LedgerBalance(100L, 3L));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.useBalance(1L, "1000000012", USE_AMOUNT));
+
+        // then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(transactionRepository, never()).save(any());
     }
 
     @Test
@@ -203,11 +342,14 @@ class TransactionServiceTest {
     }
 
     @Test
-    @DisplayName("실패 트랜잭션 저장 성공")
-    void saveFailedUseTransaction() {
+    @DisplayName("조건부 UPDATE 로 잔액 사용 성공")
+    void successUseBalance_atomic() {
         // given
+        concurrencyProperties.setUse(ConcurrencyMode.ATOMIC);
         AccountUser user = AccountUser.builder().name("Pobi").build();
         user.setId(12L);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
 
         Account account = Account.builder()
                 .accountUser(user)
@@ -217,27 +359,131 @@ class TransactionServiceTest {
 
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
+        given(accountRepository.useBalanceIfSufficient(anyString(), anyLong()))
+                .willReturn(Optional.of(7800L));
         given(transactionRepository.save(any()))
-                .willReturn(Transaction.builder()
-                        .account(account)
-                        .transactionType(USE)
-                        .transactionResultType(S)
-                        .amount(1000L)
-                        .balanceSnapshot(9000L)
-                        .transactionId("transactionId")
-                        .transactedAt(LocalDateTime.now())
-                        .build());
+                .willAnswer(invocation -> invocation.getArgument(0));
 
         ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
 
         // when
-        transactionService.saveFailedUseTransaction("1000000000", USE_AMOUNT);
+        TransactionDto transactionDto = transactionService.useBalance(1L,
+                "1000000012", USE_AMOUNT);
 
         // then
+        verify(accountRepository, times(1))
+                .useBalanceIfSufficient("1000000012", USE_AMOUNT);
         verify(transactionRepository, times(1)).save(captor.capture());
-        assertEquals(USE_AMOUNT, captor.getValue().getAmount());
-        assertEquals(10000L, captor.getValue().getBalanceSnapshot());
-        assertEquals(F, captor.getValue().getTransactionResultType());
+        assertEquals(7800L, captor.getValue().getBalanceSnapshot());
+        assertEquals(10000L, account.getBalance());
+        ArgumentCaptor<AccountChangedEvent> eventCaptor =
+                ArgumentCaptor.forClass(AccountChangedEvent.class);
+        verify(applicationEventPublisher, times(1)).publishEvent(eventCaptor.capture());
+        assertTrue(eventCaptor.getValue().isStale()); // 엔티티의 잔액은 최신이 아님
+        assertEquals(S, transactionDto.getTransactionResultType());
+        assertEquals(USE_AMOUNT, transactionDto.getAmount());
+    }
+
+    @Test
+    @DisplayName("조건부 UPDATE 대상 없음 - 잔액 사용 실패")
+    void useBalanceFailed_atomicExceedAmount() {
+        // given
+        concurrencyProperties.setUse(ConcurrencyMode.ATOMIC);
+        AccountUser user = AccountUser.builder().name("Pobi").build();
+        user.setId(12L);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(Account.builder()
+                        .accountUser(user)
+                        .accountNumber("1000000012")
+                        .accountStatus(AccountStatus.IN_USE)
+                        .balance(100L).build()));
+        given(accountRepository.useBalanceIfSufficient(anyString(), anyLong()))
+                .willReturn(Optional.empty());
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.useBalance(1L, "1000000012", 1000L));
+
+        // then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(transactionRepository, times(0)).save(any());
+    }
+
+    @Test
+    @DisplayName("여러 건 잔액 사용 - 건별로 성공/실패")
+    void useBalances() {
+        // given
+        AccountUser user = AccountUser.builder().name("Pobi").build();
+        user.setId(12L);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountNumber("1000000012")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(1000L).build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        // when
+        List<TransactionOutcome> outcomes = transactionService.useBalances("1000000012",
+                List.of(new UseBalance.Request(12L, "1000000012", 600L),
+                        new UseBalance.Request(12L, "1000000012", 600L),
+                        new UseBalance.Request(12L, "1000000012", 400L)));
+
+        // then
+        assertTrue(outcomes.get(0).isSuccess());
+        assertEquals(400L, outcomes.get(0).getTransaction().getBalanceSnapshot());
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE,
+                outcomes.get(1).getException().getErrorCode());
+        assertTrue(outcomes.get(2).isSuccess());
+        assertEquals(0L, outcomes.get(2).getTransaction().getBalanceSnapshot());
+        assertEquals(0L, account.getBalance());
+        verify(accountUserRepository, times(1)).findById(12L);
+        verify(transactionRepository, times(2)).save(any());
+    }
+
+    @Test
+    @DisplayName("실패 트랜잭션 여러 건 저장 - 없는 계좌는 건너뜀")
+    void saveFailedTransactions() {
+        // given
+        AccountUser user = AccountUser.builder().name("Pobi").build();
+        user.setId(12L);
+
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountNumber("1000000012")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L).build();
+
+        given(accountRepository.findByAccountNumberIn(anyCollection()))
+                .willReturn(List.of(account));
+
+        FailedTransaction failedUse = FailedTransaction.of(USE, "1000000012", 20000L);
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+
+        // when
+        transactionService.saveFailedTransactions(List.of(
+                failedUse,
+                FailedTransaction.of(USE, "1000000099", 1000L),
+                FailedTransaction.of(CANCEL, "1000000012", 30000L)));
+
+        // then
+        verify(accountRepository, times(1)).findByAccountNumberIn(anyCollection());
+        verify(transactionRepository, times(1)).saveAll(captor.capture());
+        List<Transaction> saved = captor.getValue();
+        assertEquals(2, saved.size());
+        assertEquals(20000L, saved.get(0).getAmount());
+        assertEquals(failedUse.getTransactedAt(), saved.get(0).getTransactedAt());
+        assertEquals(CANCEL, saved.get(1).getTransactionType());
+        assertEquals(30000L, saved.get(1).getAmount());
+        assertEquals(F, saved.get(1).getTransactionResultType());
+        assertEquals(10000L, saved.get(1).getBalanceSnapshot());
     }
 
     @Test
@@ -262,10 +508,9 @@ class TransactionServiceTest {
                 .transactedAt(LocalDateTime.now())
                 .build();
 
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findWithAccountByTransactionIdAndAccountNumber(
+                anyString(), anyString()))
                 .willReturn(Optional.of(transaction));
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
         given(transactionRepository.save(any()))
                 .willReturn(Transaction.builder()
                         .account(account)
@@ -297,11 +542,13 @@ class TransactionServiceTest {
     @DisplayName("해당 계좌 없음 - 잔액 사용 취소 실패")
     void cancelTransactionFailed_AccountNotFound() {
         // given
-        given(transactionRepository.findByTransactionId(anyString()))
-                .willReturn(Optional.of(Transaction.builder().build()));
-
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(transactionRepository.findWithAccountByTransactionIdAndAccountNumber(
+                anyString(), anyString()))
                 .willReturn(Optional.empty());
+        given(transactionRepository.existsByTransactionId(anyString()))
+                .willReturn(true);
+        given(accountRepository.existsByAccountNumber(anyString()))
+                .willReturn(false);
 
         // when
         AccountException exception = assertThrows(AccountException.class,
@@ -315,8 +562,11 @@ class TransactionServiceTest {
     @DisplayName("원 사용 거래 없음 - 잔액 사용 취소 실패")
     void cancelTransactionFailed_TransactionNotFound() {
         // given
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findWithAccountByTransactionIdAndAccountNumber(
+                anyString(), anyString()))
                 .willReturn(Optional.empty());
+        given(transactionRepository.existsByTransactionId(anyString()))
+                .willReturn(false);
 
         // when
         AccountException exception = assertThrows(AccountException.class,
@@ -330,38 +580,13 @@ class TransactionServiceTest {
     @DisplayName("거래와 계좌 매칭 실패 - 잔액 사용 취소 실패")
     void cancelTransactionFailed_TransactionAccountUnMatch() {
         // given
-        AccountUser user = AccountUser.builder().name("Pobi").build();
-        user.setId(12L);
-
-        Account account = Account.builder()
-                .accountUser(user)
-                .accountNumber("1000000012")
-                .accountStatus(AccountStatus.IN_USE)
-                .balance(10000L).build();
-        account.setId(1L);
-
-        Account accountNotUse = Account.builder()
-                .accountUser(user)
-                .accountNumber("1000000013")
-                .accountStatus(AccountStatus.IN_USE)
-                .balance(10000L).build();
-        accountNotUse.setId(2L);
-
-        Transaction transaction = Transaction.builder()
-                .account(account)
-                .transactionType(USE)
-                .transactionResultType(S)
-                .amount(CANCEL_AMOUNT)
-                .balanceSnapshot(9000L)
-                .transactionId("transactionId")
-                .transactedAt(LocalDateTime.now())
-                .build();
-
-        given(transactionRepository.findByTransactionId(anyString()))
-                .willReturn(Optional.of(transaction));
-
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(accountNotUse));
+        given(transactionRepository.findWithAccountByTransactionIdAndAccountNumber(
+                anyString(), anyString()))
+                .willReturn(Optional.empty());
+        given(transactionRepository.existsByTransactionId(anyString()))
+                .willReturn(true);
+        given(accountRepository.existsByAccountNumber(anyString()))
+                .willReturn(true);
 
         // when
         AccountException exception = assertThrows(AccountException.class,
@@ -396,12 +621,10 @@ class TransactionServiceTest {
                 .transactedAt(LocalDateTime.now())
                 .build();
 
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findWithAccountByTransactionIdAndAccountNumber(
+                anyString(), anyString()))
                 .willReturn(Optional.of(transaction));
 
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
-
         // when
         AccountException exception = assertThrows(AccountException.class,
                 () -> transactionService.cancelBalance(
@@ -435,12 +658,10 @@ class TransactionServiceTest {
                 .transactedAt(LocalDateTime.now().minusYears(1))
                 .build();
 
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findWithAccountByTransactionIdAndAccountNumber(
+                anyString(), anyString()))
                 .willReturn(Optional.of(transaction));
 
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
-
         // when
         AccountException exception = assertThrows(AccountException.class,
                 () -> transactionService.cancelBalance(
@@ -453,28 +674,16 @@ class TransactionServiceTest {
     @Test
     void successQueryTransaction() {
     	// given
-        AccountUser user = AccountUser.builder().name("Pobi").build();
-        user.setId(12L);
-
-        Account account = Account.builder()
-                .accountUser(user)
-                .accountNumber("1000000012")
-                .accountStatus(AccountStatus.IN_USE)
-                .balance(10000L).build();
-        account.setId(1L);
-
-        Transaction transaction = Transaction.builder()
-                .account(account)
-                .transactionType(USE)
-                .transactionResultType(S)
-                .amount(CANCEL_AMOUNT)
-                .balanceSnapshot(9000L)
-                .transactionId("transactionId")
-                .transactedAt(LocalDateTime.now().minusYears(1))
-                .build();
-
-        given(transactionRepository.findByTransactionId(anyString()))
-                .willReturn(Optional.of(transaction));
+        given(transactionRepository.findDtoByTransactionId(anyString()))
+                .willReturn(Optional.of(TransactionDto.builder()
+                        .accountNumber("1000000012")
+                        .transactionType(USE)
+                        .transactionResultType(S)
+                        .amount(CANCEL_AMOUNT)
+                        .balanceSnapshot(9000L)
+                        .transactionId("transactionId")
+                        .transactedAt(LocalDateTime.now().minusYears(1))
+                        .build()));
 
     	// when
         TransactionDto transactionDto = transactionService.queryTransaction("trxId");
@@ -490,7 +699,7 @@ class TransactionServiceTest {
     @DisplayName("원 거래 없음 - 거래 조회 실패")
     void queryTransactionFailed_TransactionNotFound() {
         // given
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findDtoByTransactionId(anyString()))
                 .willReturn(Optional.empty());
 
         // when
@@ -500,4 +709,77 @@ class TransactionServiceTest {
         // then
         assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
     }
+
+    @Test
+    void queryTransactions_hasNext() {
+        // given
+        Account account = Account.builder().accountNumber("1000000012").build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        LocalDateTime now = LocalDateTime.now();
+        given(transactionRepository.findPage(account, USE, null, PageRequest.of(0, 3)))
+                .willReturn(List.of(
+                        pagedTransaction(account, 30L, "t3", now),
+                        pagedTransaction(account, 20L, "t2", now.minusMinutes(1)),
+                        pagedTransaction(account, 10L, "t1", now.minusMinutes(2))));
+
+        // when
+        TransactionPage page = transactionService.queryTransactions(
+                "1000000012", null, 2, USE, null);
+
+        // then
+        assertEquals(2, page.getTransactions().size());
+        assertEquals("t2", page.getTransactions().get(1).getTransactionId());
+        TransactionCursor next = TransactionCursor.decode(page.getNext());
+        assertEquals(20L, next.getId());
+        assertEquals(now.minusMinutes(1), next.getTransactedAt());
+    }
+
+    @Test
+    void queryTransactions_after() {
+        // given
+        Account account = Account.builder().accountNumber("1000000012").build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        LocalDateTime at = LocalDateTime.of(2026, 3, 1, 12, 0);
+        given(transactionRepository.findPageAfter(account, at, 20L, null, S, PageRequest.of(0, 3)))
+                .willReturn(List.of(pagedTransaction(account, 10L, "t1", at.minusMinutes(1))));
+
+        // when
+        TransactionPage page = transactionService.queryTransactions("1000000012",
+                new TransactionCursor(at, 20L).encode(), 2, null, S);
+
+        // then
+        assertEquals(1, page.getTransactions().size());
+        assertNull(page.getNext());
+    }
+
+    @Test
+    void queryTransactions_invalidRequest() {
+        // given
+        // when
+        AccountException tooLarge = assertThrows(AccountException.class,
+                () -> transactionService.queryTransactions("1000000012", null, 101, null, null));
+        AccountException invalidCursor = assertThrows(AccountException.class,
+                () -> transactionService.queryTransactions("1000000012", "not-a-cursor", 20, null, null));
+
+        // then
+        assertEquals(ErrorCode.INVALID_REQUEST, tooLarge.getErrorCode());
+        assertEquals(ErrorCode.INVALID_REQUEST, invalidCursor.getErrorCode());
+        verify(transactionRepository, never()).findPage(any(), any(), any(), any());
+    }
+
+    private Transaction pagedTransaction(Account account, Long id, String transactionId,
+                                         LocalDateTime transactedAt) {
+        Transaction transaction = Transaction.builder()
+                .account(account)
+                .transactionType(USE)
+                .transactionResultType(S)
+                .amount(1000L)
+                .transactionId(transactionId)
+                .transactedAt(transactedAt)
+                .build();
+        transaction.setId(id);
+        return transaction;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,316 @@
+package com.example.accountsystem.service;
+
+import com.example.accountsystem.config.ConcurrencyProperties;
+import com.example.accountsystem.domain.Account;
+import com.example.accountsystem.dto.TransactionDto;
+import com.example.accountsystem.dto.TransactionOutcome;
+import com.example.accountsystem.dto.UseBalance;
+import com.example.accountsystem.exception.AccountException;
+import com.example.accountsystem.type.ConcurrencyMode;
+import com.example.accountsystem.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.example.accountsystem.type.TransactionResultType.S;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UseBalanceBatcherTest {
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private StripedLockService stripedLockService;
+
+    @Mock
+    private AccountLockProvider accountLockProvider;
+
+    @Mock
+    private HotAccountDetector hotAccountDetector;
+
+    @Spy
+    private ConcurrencyProperties concurrencyProperties = new ConcurrencyProperties();
+
+    @Mock
+    private RedisBalanceService redisBalanceService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private LockMetrics lockMetrics = new LockMetrics(meterRegistry);
+
+    private UseBalanceBatcher useBalanceBatcher;
+
+    @BeforeEach
+    void setUp() {
+        useBalanceBatcher = new UseBalanceBatcher(transactionService,
+                new AccountLockTemplate(stripedLockService, accountLockProvider,
+                        lockMetrics, hotAccountDetector),
+                concurrencyProperties, redisBalanceService, lockMetrics);
+    }
+
+    @Test
+    void successUseBalance() {
+        // given
+        given(transactionService.useBalances(anyString(), anyList()))
+                .willAnswer(invocation -> succeedAll(invocation.getArgument(1)));
+
+        // when
+        TransactionDto transactionDto =
+                useBalanceBatcher.useBalance(1L, "1000000000", 1000L);
+
+        // then
+        assertEquals(1000L, transactionDto.getAmount());
+        verify(accountLockProvider, times(1)).lock("1000000000");
+        verify(accountLockProvider, times(1)).unlock("1000000000");
+        verify(stripedLockService, times(1)).lock("1000000000");
+        verify(stripedLockService, times(1)).unlock("1000000000");
+        assertEquals(1L, meterRegistry.get("account.lock.hold").tag("endpoint", "use").timer().count());
+        verify(hotAccountDetector, times(1)).record(eq("1000000000"), anyLong(), eq(true));
+    }
+
+    @Test
+    void coalesceConcurrentRequests() throws Exception {
+        // given
+        concurrencyProperties.getBatch().setWindow(Duration.ZERO);
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch othersQueued = new CountDownLatch(1);
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        given(transactionService.useBalances(anyString(), anyList()))
+                .willAnswer(invocation -> {
+                    List<UseBalance.Request> requests = invocation.getArgument(1);
+                    batchSizes.add(requests.size());
+                    if (batchSizes.size() == 1) {
+                        firstBatchStarted.countDown();
+                        othersQueued.await(5, TimeUnit.SECONDS);
+                    }
+                    return succeedAll(requests);
+                });
+
+        // when
+        CompletableFuture<TransactionDto> first = CompletableFuture.supplyAsync(() ->
+                useBalanceBatcher.useBalance(1L, "1000000000", 100L));
+        firstBatchStarted.await(5, TimeUnit.SECONDS);
+        List<CompletableFuture<TransactionDto>> others = new ArrayList<>();
+        for (long amount = 200L; amount <= 400L; amount += 100L) {
+            long useAmount = amount;
+            others.add(CompletableFuture.supplyAsync(() ->
+                    useBalanceBatcher.useBalance(1L, "1000000000", useAmount)));
+        }
+        Thread.sleep(200L);
+        othersQueued.countDown();
+
+        // then
+        assertEquals(100L, first.join().getAmount());
+        assertEquals(List.of(200L, 300L, 400L), others.stream()
+                .map(future -> future.join().getAmount())
+                .sorted()
+                .collect(Collectors.toList()));
+        assertEquals(List.of(1, 3), batchSizes);
+    }
+
+    @Test
+    void handOffRemainingRequests() throws Exception {
+        // given
+        concurrencyProperties.getBatch().setWindow(Duration.ZERO);
+        concurrencyProperties.getBatch().setMaxSize(1);
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch othersQueued = new CountDownLatch(1);
+        CountDownLatch secondBatchReleased = new CountDownLatch(1);
+        List<Integer> batchCount = Collections.synchronizedList(new ArrayList<>());
+        given(transactionService.useBalances(anyString(), anyList()))
+                .willAnswer(invocation -> {
+                    batchCount.add(1);
+                    if (batchCount.size() == 1) {
+                        firstBatchStarted.countDown();
+                        othersQueued.await(5, TimeUnit.SECONDS);
+                    } else if (batchCount.size() == 2) {
+                        secondBatchReleased.await(5, TimeUnit.SECONDS);
+                    }
+                    return succeedAll(invocation.getArgument(1));
+                });
+
+        // when
+        CompletableFuture<TransactionDto> first = CompletableFuture.supplyAsync(() ->
+                useBalanceBatcher.useBalance(1L, "1000000000", 100L));
+        firstBatchStarted.await(5, TimeUnit.SECONDS);
+        List<CompletableFuture<TransactionDto>> others = new ArrayList<>();
+        for (long amount = 200L; amount <= 300L; amount += 100L) {
+            long useAmount = amount;
+            others.add(CompletableFuture.supplyAsync(() ->
+                    useBalanceBatcher.useBalance(1L, "1000000000", useAmount)));
+        }
+        Thread.sleep(200L);
+        othersQueued.countDown();
+
+        // then
+        // 두 번째 묶음이 끝나지 않아도 첫 요청은 응답한다.
+        assertEquals(100L, first.get(5, TimeUnit.SECONDS).getAmount());
+        secondBatchReleased.countDown();
+        assertEquals(List.of(200L, 300L), others.stream()
+                .map(future -> future.join().getAmount())
+                .sorted()
+                .collect(Collectors.toList()));
+        assertEquals(3, batchCount.size());
+    }
+
+    @Test
+    void failUseBalance_eachRequestGetsOwnFailure() {
+        // given
+        given(transactionService.useBalances(anyString(), anyList()))
+                .willReturn(List.of(TransactionOutcome.failure(
+                        new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE))));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> useBalanceBatcher.useBalance(1L, "1000000000", 1000L));
+
+        // then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+    }
+
+    @Test
+    void failUseBalance_lockFailed() {
+        // given
+        willThrow(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK))
+                .given(accountLockProvider).lock(anyString());
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> useBalanceBatcher.useBalance(1L, "1000000000", 1000L));
+
+        // then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        verify(transactionService, never()).useBalances(anyString(), anyList());
+        verify(stripedLockService, times(1)).unlock("1000000000");
+        assertEquals(1.0, meterRegistry.get("account.lock.failures")
+                .tag("endpoint", "use").counter().count());
+        verify(hotAccountDetector, times(1)).record(eq("1000000000"), anyLong(), eq(false));
+    }
+
+    @Test
+    void useBalances_groupByAccount() {
+        // given
+        given(transactionService.useBalances(anyString(), anyList()))
+                .willAnswer(invocation -> succeedAll(invocation.getArgument(1)));
+        willAnswer(invocation -> {
+            if ("2000000000".equals(invocation.getArgument(0))) {
+                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+            }
+            return null;
+        }).given(accountLockProvider).lock(anyString());
+
+        // when
+        List<TransactionOutcome> outcomes = useBalanceBatcher.useBalances(List.of(
+                new UseBalance.Request(1L, "1000000000", 100L),
+                new UseBalance.Request(1L, "2000000000", 200L),
+                new UseBalance.Request(1L, "1000000000", 300L)));
+
+        // then
+        assertEquals(100L, outcomes.get(0).getTransaction().getAmount());
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+                outcomes.get(1).getException().getErrorCode());
+        assertEquals(300L, outcomes.get(2).getTransaction().getAmount());
+        verify(accountLockProvider, times(1)).lock("1000000000");
+        verify(accountLockProvider, times(1)).unlock("1000000000");
+        verify(accountLockProvider, never()).unlock("2000000000");
+        verify(transactionService, times(1)).useBalances(anyString(), anyList());
+    }
+
+    @Test
+    void useBalances_atomicMode() {
+        // given
+        concurrencyProperties.setUse(ConcurrencyMode.ATOMIC);
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(TransactionDto.builder().amount(100L).build())
+                .willThrow(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+
+        // when
+        List<TransactionOutcome> outcomes = useBalanceBatcher.useBalances(List.of(
+                new UseBalance.Request(1L, "1000000000", 100L),
+                new UseBalance.Request(1L, "1000000000", 20000L)));
+
+        // then
+        assertEquals(100L, outcomes.get(0).getTransaction().getAmount());
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE,
+                outcomes.get(1).getException().getErrorCode());
+        verify(accountLockProvider, never()).lock(anyString());
+        verify(transactionService, never()).useBalances(anyString(), anyList());
+    }
+
+    @Test
+    void useBalances_optimisticMode_retry() {
+        // given
+        concurrencyProperties.setUse(ConcurrencyMode.OPTIMISTIC);
+        concurrencyProperties.getOptimistic().setBackoff(Duration.ZERO);
+        given(transactionService.useBalances(anyString(), anyList()))
+                .willThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L))
+                .willAnswer(invocation -> succeedAll(invocation.getArgument(1)));
+
+        // when
+        List<TransactionOutcome> outcomes = useBalanceBatcher.useBalances(List.of(
+                new UseBalance.Request(1L, "1000000000", 100L)));
+
+        // then
+        assertEquals(100L, outcomes.get(0).getTransaction().getAmount());
+        verify(transactionService, times(2)).useBalances(anyString(), anyList());
+        verify(accountLockProvider, never()).lock(anyString());
+    }
+
+    @Test
+    void useBalances_concurrencyFailureFailsOnlyThatAccount() {
+        // given
+        given(transactionService.useBalances(anyString(), anyList()))
+                .willAnswer(invocation -> {
+                    if ("2000000000".equals(invocation.getArgument(0))) {
+                        throw new PessimisticLockingFailureException("lock timeout");
+                    }
+                    return succeedAll(invocation.getArgument(1));
+                });
+
+        // when
+        List<TransactionOutcome> outcomes = useBalanceBatcher.useBalances(List.of(
+                new UseBalance.Request(1L, "1000000000", 100L),
+                new UseBalance.Request(1L, "2000000000", 200L)));
+
+        // then
+        assertTrue(outcomes.get(0).isSuccess());
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+                outcomes.get(1).getException().getErrorCode());
+        verify(accountLockProvider, times(1)).unlock("2000000000");
+    }
+
+    private static List<TransactionOutcome> succeedAll(List<UseBalance.Request> requests) {
+        return requests.stream()
+                .map(request -> TransactionOutcome.success(TransactionDto.builder()
+                        .accountNumber(request.getAccountNumber())
+                        .transactionResultType(S)
+                        .amount(request.getAmount())
+                        .build()))
+                .collect(Collectors.toList());
+    }
+}